@@ -37,9 +37,9 @@ public class ActiveMarch {
         this.statusChangeTime = startTime;
         
         // FIXED: Pre-calculate durations for better performance
-        this.marchingDurationSeconds = parseTimeToSeconds(marchingTime);
-        this.gatheringDurationSeconds = parseTimeToSeconds(gatheringTime);
-        this.totalDurationSeconds = parseTimeToSeconds(totalTime);
+        this.marchingDurationSeconds = TimeUtils.parseTimeToSeconds(marchingTime);
+        this.gatheringDurationSeconds = TimeUtils.parseTimeToSeconds(gatheringTime);
+        this.totalDurationSeconds = TimeUtils.parseTimeToSeconds(totalTime);
         
         // Debug log the parsed durations
         System.out.println("📊 [MARCH CREATED] Queue " + queueNumber + ":");
@@ -51,33 +51,6 @@ public class ActiveMarch {
         updateStatusImmediate();
     }
 
-    /**
-     * Convert time string (HH:MM:SS) to seconds
-     */
-    private long parseTimeToSeconds(String timeStr) {
-        try {
-            if (timeStr == null || timeStr.trim().isEmpty()) {
-                return 0;
-            }
-            
-            String[] parts = timeStr.split(":");
-            if (parts.length == 3) {
-                long hours = Long.parseLong(parts[0]);
-                long minutes = Long.parseLong(parts[1]);
-                long seconds = Long.parseLong(parts[2]);
-                return hours * 3600 + minutes * 60 + seconds;
-            } else if (parts.length == 2) {
-                long minutes = Long.parseLong(parts[0]);
-                long seconds = Long.parseLong(parts[1]);
-                return minutes * 60 + seconds;
-            }
-            return 0;
-        } catch (Exception e) {
-            System.err.println("Error parsing time: " + timeStr);
-            return 0;
-        }
-    }
-
     /**
      * FIXED: Get time remaining with correct calculation
      */
@@ -262,12 +235,7 @@ public class ActiveMarch {
      * Format seconds to HH:MM:SS
      */
     private String formatTime(long seconds) {
-        if (seconds < 0) seconds = 0;
-        
-        long hours = seconds / 3600;
-        long minutes = (seconds % 3600) / 60;
-        long secs = seconds % 60;
-        return String.format("%02d:%02d:%02d", hours, minutes, secs);
+        return TimeUtils.formatTime(Math.max(0, seconds));
     }
 
     /**
@@ -0,0 +1,253 @@
+package newgame;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Long-lived adb shell channel for a single MEmu instance.
+ * Keeps one "memuc adb shell" process open and runs commands over its stdin,
+ * so taps, swipes and screen captures don't each pay for a process launch.
+ */
+public class AdbSession {
+    private static final Map<Integer, AdbSession> sessions = new ConcurrentHashMap<>();
+    private static final String DONE_MARKER = "__BENSON_DONE_";
+    private static final int MAX_START_FAILURES = 3;
+    private static final long START_RETRY_COOLDOWN_MS = 60000;
+    private static final long OUTPUT_POLL_MS = 200;
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(AdbSession::closeAll, "adb-session-shutdown"));
+    }
+
+    /**
+     * Result of one shell command run over the session
+     */
+    public static class ShellResult {
+        public final boolean completed;
+        // True once the command reached the shell, even if it then timed out
+        public final boolean sent;
+        public final int exitCode;
+        public final String output;
+
+        ShellResult(boolean completed, boolean sent, int exitCode, String output) {
+            this.completed = completed;
+            this.sent = sent;
+            this.exitCode = exitCode;
+            this.output = output;
+        }
+
+        public boolean isSuccess() {
+            return completed && exitCode == 0;
+        }
+    }
+
+    private final int instanceIndex;
+    private final BlockingQueue<String> outputLines = new LinkedBlockingQueue<>();
+    private volatile Process process;
+    private BufferedWriter commandWriter;
+    private long commandCounter = 0;
+    private int startFailures = 0;
+    private long lastStartFailureTime = 0;
+
+    private AdbSession(int instanceIndex) {
+        this.instanceIndex = instanceIndex;
+    }
+
+    public static AdbSession forInstance(int instanceIndex) {
+        return sessions.computeIfAbsent(instanceIndex, AdbSession::new);
+    }
+
+    /**
+     * Close the instance's session without waiting for a command in flight,
+     * so it is safe to call from the EDT
+     */
+    public static void close(int instanceIndex) {
+        AdbSession session = sessions.remove(instanceIndex);
+        if (session != null) {
+            session.abort();
+        }
+    }
+
+    public static void closeAll() {
+        for (Integer index : sessions.keySet()) {
+            AdbSession session = sessions.remove(index);
+            if (session != null) {
+                session.shutdown();
+            }
+        }
+    }
+
+    /**
+     * Run a shell command on the device and wait for it to finish.
+     * Returns completed=false if the command did not finish. Only when sent
+     * is also false is it safe to fall back to a one-off adb process; once
+     * sent, the command may already have run on the device.
+     */
+    public synchronized ShellResult execute(String command, long timeoutMillis) {
+        if (!ensureStarted()) {
+            return new ShellResult(false, false, -1, "");
+        }
+
+        long commandId = ++commandCounter;
+        String marker = DONE_MARKER + commandId + ":";
+        outputLines.clear();
+
+        try {
+            commandWriter.write(command + " ; echo " + marker + "$?\n");
+            commandWriter.flush();
+        } catch (IOException e) {
+            System.err.println("❌ [ADB] Session write failed for instance " + instanceIndex + ": " + e.getMessage());
+            markFailed();
+            return new ShellResult(false, false, -1, "");
+        }
+
+        StringBuilder output = new StringBuilder();
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+
+        try {
+            while (true) {
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    System.err.println("❌ [ADB] Session command timed out on instance " + instanceIndex + ": " + command);
+                    markFailed();
+                    return new ShellResult(false, true, -1, output.toString());
+                }
+
+                String line = outputLines.poll(Math.min(remaining, OUTPUT_POLL_MS), TimeUnit.MILLISECONDS);
+                if (line == null) {
+                    Process running = process;
+                    if (running == null || !running.isAlive()) {
+                        // Closed underneath us by close()
+                        return new ShellResult(false, true, -1, output.toString());
+                    }
+                    continue;
+                }
+
+                int markerPos = line.indexOf(marker);
+                if (markerPos < 0) {
+                    output.append(line).append("\n");
+                    continue;
+                }
+
+                if (markerPos > 0) {
+                    output.append(line, 0, markerPos);
+                }
+
+                int exitCode;
+                try {
+                    exitCode = Integer.parseInt(line.substring(markerPos + marker.length()).trim());
+                } catch (NumberFormatException e) {
+                    exitCode = -1;
+                }
+                startFailures = 0;
+                return new ShellResult(true, true, exitCode, output.toString().trim());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            shutdown();
+            return new ShellResult(false, true, -1, output.toString());
+        }
+    }
+
+    private boolean ensureStarted() {
+        if (process != null && process.isAlive()) {
+            return true;
+        }
+
+        if (startFailures >= MAX_START_FAILURES &&
+            System.currentTimeMillis() - lastStartFailureTime < START_RETRY_COOLDOWN_MS) {
+            return false;
+        }
+
+        try {
+            ProcessBuilder builder = new ProcessBuilder(
+                BotUtils.MEMUC_PATH, "adb", "-i", String.valueOf(instanceIndex), "shell"
+            );
+            builder.redirectErrorStream(true);
+            process = builder.start();
+            commandWriter = new BufferedWriter(new OutputStreamWriter(process.getOutputStream(), StandardCharsets.UTF_8));
+            outputLines.clear();
+
+            Process readerProcess = process;
+            Thread readerThread = new Thread(() -> pumpOutput(readerProcess), "adb-session-" + instanceIndex);
+            readerThread.setDaemon(true);
+            readerThread.start();
+
+            System.out.println("🔌 [ADB] Opened persistent shell session for instance " + instanceIndex);
+            return true;
+
+        } catch (IOException e) {
+            System.err.println("❌ [ADB] Failed to open shell session for instance " + instanceIndex + ": " + e.getMessage());
+            process = null;
+            markFailed();
+            return false;
+        }
+    }
+
+    private void markFailed() {
+        startFailures++;
+        lastStartFailureTime = System.currentTimeMillis();
+        shutdown();
+    }
+
+    private void pumpOutput(Process source) {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(source.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                outputLines.offer(line);
+            }
+        } catch (IOException e) {
+            // Stream closed when the session is shut down
+        }
+    }
+
+    /**
+     * Kill the shell so a waiting execute() returns, then finish the orderly
+     * shutdown on a helper thread once execute() has released the lock
+     */
+    private void abort() {
+        Process running = process;
+        if (running != null) {
+            running.destroy();
+        }
+        Thread closer = new Thread(this::shutdown, "adb-session-close-" + instanceIndex);
+        closer.setDaemon(true);
+        closer.start();
+    }
+
+    private synchronized void shutdown() {
+        if (process == null) {
+            return;
+        }
+
+        try {
+            commandWriter.write("exit\n");
+            commandWriter.flush();
+        } catch (IOException e) {
+            // Shell already gone
+        }
+
+        process.destroy();
+        try {
+            if (!process.waitFor(2, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        } catch (InterruptedException e) {
+            process.destroyForcibly();
+            Thread.currentThread().interrupt();
+        }
+
+        process = null;
+        commandWriter = null;
+        System.out.println("🔌 [ADB] Closed shell session for instance " + instanceIndex);
+    }
+}
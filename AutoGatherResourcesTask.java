@@ -10,6 +10,7 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
 import javax.imageio.ImageIO;
 
 /**
@@ -32,12 +33,22 @@ public class AutoGatherResourcesTask extends SwingWorker<Void, String> {
     // Smart hibernation settings
     private static final long COMPLETION_SPREAD_THRESHOLD = 600; // 10 minutes in seconds
     private static final long MIN_RESTART_INTERVAL = 300;       // 5 minutes minimum between restarts
-    private static final long WAKE_UP_BUFFER_SECONDS = 120;     // 2 minutes before completion
     private static final long MIN_HIBERNATION_TIME = 300;       // Only hibernate if sleep > 5 minutes
+    private static final long BOOT_POLL_INTERVAL_MS = 2000;
+    private static final long GAME_READY_TIMEOUT_MS = 30000;
     
     private boolean hibernationEnabled = true;
     private LocalDateTime hibernationStartTime;
     private long hibernationDurationSeconds;
+    private long nextWakeDelaySeconds;
+    private long wakeStartMillis;
+    
+    // Set while WakeScheduler holds this task's next wake; no thread is used meanwhile
+    private volatile boolean parked = false;
+    // Thread running the current cycle, if any
+    private final AtomicReference<Thread> cycleThread = new AtomicReference<>();
+    // Told when the first cycle stops driving the device: parked with WakeScheduler, finished or cancelled
+    private volatile Runnable onHandOff;
 
     public AutoGatherResourcesTask(MemuInstance instance) throws AWTException {
         this.instance = instance;
@@ -48,14 +59,11 @@ public class AutoGatherResourcesTask extends SwingWorker<Void, String> {
     }
     
     /**
-     * SIMPLIFIED: Update hibernation status with countdown
+     * SIMPLIFIED: Update hibernation status with countdown from WakeScheduler
      */
-    private void updateHibernationStatus() {
+    private void updateHibernationStatus(long remainingHibernation) {
         try {
             if (hibernationStartTime != null && hibernationDurationSeconds > 0) {
-                long elapsedHibernation = java.time.Duration.between(hibernationStartTime, LocalDateTime.now()).getSeconds();
-                long remainingHibernation = hibernationDurationSeconds - elapsedHibernation;
-                
                 if (remainingHibernation > 0) {
                     String remainingTime = TimeUtils.formatTime(remainingHibernation);
                     String status = "😴 Hibernating - Wake in " + remainingTime;
@@ -101,18 +109,22 @@ public class AutoGatherResourcesTask extends SwingWorker<Void, String> {
      * Wake up the instance
      */
     private void wakeUpInstance() {
+        wakeStartMillis = 0;
         try {
             if (!BotUtils.isInstanceRunning(instance.index)) {
                 Main.addToConsole("🌅 " + instance.name + " waking up (starting instance)");
                 
                 updateInstanceStatus("🌅 Waking up...");
+                wakeStartMillis = System.currentTimeMillis();
                 
                 // Start the instance
                 MemuActions.startInstance(null, instance.index, () -> {
                     Main.addToConsole("☀️ " + instance.name + " wake up complete");
                 });
                 
-                Thread.sleep(10000); // Wait for startup
+                if (!waitForInstanceRunning(BootLatencyModel.getReadyTimeoutSeconds(instance.index) * 1000)) {
+                    Main.addToConsole("⚠️ " + instance.name + " not reported running yet, continuing");
+                }
                 
                 updateInstanceStatus("☀️ Awake - Ready for deployment");
                 
@@ -126,6 +138,65 @@ public class AutoGatherResourcesTask extends SwingWorker<Void, String> {
         }
     }
     
+    /**
+     * Poll until the emulator reports running instead of sleeping a fixed time
+     */
+    private boolean waitForInstanceRunning(long timeoutMillis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        while (System.currentTimeMillis() < deadline) {
+            Thread.sleep(BOOT_POLL_INTERVAL_MS);
+            if (BotUtils.isInstanceRunning(instance.index)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Poll until the game's world or town icon is on screen
+     */
+    private boolean waitForGameReady(long timeoutMillis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        do {
+            try (ScreenFrame frame = ScreenFrame.capture(instance.index)) {
+                if (frame != null && (BotUtils.findImageOnScreen(frame, "world_icon.png", 0.7) != null ||
+                                      BotUtils.findImageOnScreen(frame, "town_icon.png", 0.7) != null)) {
+                    return true;
+                }
+            }
+            Thread.sleep(BOOT_POLL_INTERVAL_MS);
+        } while (System.currentTimeMillis() < deadline);
+        return false;
+    }
+    
+    /**
+     * After a wake that started the emulator, poll for the game screen instead
+     * of a fixed settle delay and record how long the wake took. A wake that
+     * never got there is recorded as taking at least until the timeout.
+     */
+    private void recordBootLatency() throws InterruptedException {
+        if (wakeStartMillis <= 0) {
+            return;
+        }
+        boolean ready = waitForGameReady(GAME_READY_TIMEOUT_MS);
+        long elapsed = System.currentTimeMillis() - wakeStartMillis;
+        wakeStartMillis = 0;
+        if (ready) {
+            BootLatencyModel.record(instance.index, elapsed);
+        } else {
+            Main.addToConsole("⚠️ " + instance.name + " game screen not seen after wake-up");
+            BootLatencyModel.recordTimeout(instance.index, elapsed);
+        }
+    }
+    
+    /**
+     * Start the instance this many seconds before its marches return, from
+     * its measured time-to-ready
+     */
+    private long wakeLeadSeconds() {
+        return BootLatencyModel.getWakeLeadSeconds(instance.index);
+    }
+    
     /**
      * Ensure instance is running
      */
@@ -176,8 +247,25 @@ public class AutoGatherResourcesTask extends SwingWorker<Void, String> {
         return count;
     }
     
+    /**
+     * Run callback once the task no longer drives the device, so a module
+     * chain can hold the screen and input until then
+     */
+    public void setOnHandOff(Runnable callback) {
+        this.onHandOff = callback;
+    }
+    
     @Override
     protected void done() {
+        Runnable callback = onHandOff;
+        if (callback != null) {
+            callback.run();
+        }
+        // Still running after the first cycle returned means it parked; parked itself may already be cleared by a wake
+        if (!isCancelled() && instance.isAutoGatherRunning()) {
+            System.out.println("💤 [WAKE] " + instance.name + " released its worker thread while hibernating");
+            return;
+        }
         try {
             get();
             Main.addToConsole("✅ " + instance.name + " hibernating auto gather completed");
@@ -190,9 +278,15 @@ public class AutoGatherResourcesTask extends SwingWorker<Void, String> {
         shouldStop = true;
         cancel(true);
         
-        // Wake up instance before stopping
-        if (!BotUtils.isInstanceRunning(instance.index)) {
-            wakeUpInstance();
+        Thread running = cycleThread.get();
+        if (running != null) {
+            running.interrupt();
+        }
+        
+        // A parked task has no thread to clean up after it, so do it here
+        if (WakeScheduler.cancel(instance.index)) {
+            parked = false;
+            finishGathering();
         }
         
         Main.addToConsole("🛑 " + instance.name + " hibernating auto gather stop requested");
@@ -238,50 +332,64 @@ public class AutoGatherResourcesTask extends SwingWorker<Void, String> {
 
     @Override
     protected Void doInBackground() throws Exception {
+        instance.setAutoGatherRunning(true);
+        updateInstanceStatus("Starting hibernating auto gather...");
+        
+        Main.addToConsole("🔄 Hibernating Auto Gather started for " + instance.name);
+        System.out.println("🔄 Starting Hibernating AutoGatherResourcesTask for instance " + instance.index);
+        
+        runGatherCycle(false);
+        return null;
+    }
+    
+    /**
+     * Deploy, collect details and hibernate, then hand the next wake to
+     * WakeScheduler and return. Later cycles run on a wake worker thread, so
+     * the thread is only held while the instance is awake.
+     */
+    private void runGatherCycle(boolean wakingUp) {
+        Thread self = Thread.currentThread();
+        cycleThread.set(self);
+        // Local, since the wake and stop paths change parked from other threads
+        boolean handedOff = false;
         try {
-            instance.setAutoGatherRunning(true);
-            updateInstanceStatus("Starting hibernating auto gather...");
-            
-            Main.addToConsole("🔄 Hibernating Auto Gather started for " + instance.name);
-            System.out.println("🔄 Starting Hibernating AutoGatherResourcesTask for instance " + instance.index);
-            
-            // MAIN HIBERNATION LOOP
-            boolean initialDeploymentDone = false;
+            if (wakingUp) {
+                if (hibernationStartTime != null) {
+                    Main.addToConsole("🌅 " + instance.name + " hibernation time complete, waking up");
+                }
+                wakeUpInstance();
+                
+                // Run Auto Start Game when waking up from hibernation
+                if (!runAutoStartGameAfterWakeup()) {
+                    Main.addToConsole("⚠️ " + instance.name + " Auto Start Game failed after wake-up, continuing anyway");
+                }
+                recordBootLatency();
+            }
             
             while (!shouldStop && !isCancelled()) {
                 try {
-                    if (!initialDeploymentDone) {
-                        // PHASE 1: Deploy marches, collect details, then hibernate
-                        if (performFullDeploymentCycleAndHibernate()) {
-                            initialDeploymentDone = true;
+                    // Deploy marches, collect details, then hibernate
+                    if (performFullDeploymentCycleAndHibernate()) {
+                        if (hibernationStartTime != null) {
                             Main.addToConsole("😴 " + instance.name + " entered hibernation with smart timing");
-                        } else {
-                            Main.addToConsole("⚠️ " + instance.name + " deployment failed, retrying in 30s");
-                            Thread.sleep(30000);
-                            continue;
                         }
-                    } else {
-                        // PHASE 2: Hibernation monitoring and wake-up
-                        if (monitorHibernationAndWakeup()) {
-                            Main.addToConsole("🌅 " + instance.name + " waking up for new deployment");
-                            
-                            // Run Auto Start Game when waking up from hibernation
-                            if (!runAutoStartGameAfterWakeup()) {
-                                Main.addToConsole("⚠️ " + instance.name + " Auto Start Game failed after wake-up, continuing anyway");
-                            }
-                            
-                            // Reset to deploy new marches
-                            initialDeploymentDone = false;
-                        } else {
-                            // Update hibernation countdown
-                            updateHibernationStatus();
-                            Thread.sleep(10000); // Check every 10 seconds
+                        parked = true;
+                        WakeScheduler.schedule(instance.index, nextWakeDelaySeconds, this::onScheduledWake, this::updateHibernationStatus);
+                        handedOff = true;
+                        // A stop that landed before the wake was queued found nothing to cancel.
+                        // Whoever cancels the wake finishes the task, so this is never done twice.
+                        if (shouldStop && WakeScheduler.cancel(instance.index)) {
+                            parked = false;
+                            handedOff = false;
                         }
+                        return;
                     }
                     
+                    Main.addToConsole("⚠️ " + instance.name + " deployment failed, retrying in 30s");
+                    Thread.sleep(30000);
+                    
                 } catch (InterruptedException e) {
-                    Main.addToConsole("🛑 " + instance.name + " hibernating auto gather interrupted");
-                    break;
+                    throw e;
                 } catch (Exception e) {
                     System.err.println("Error in hibernating gather loop: " + e.getMessage());
                     updateInstanceStatus("❌ Error: " + e.getMessage());
@@ -289,18 +397,41 @@ public class AutoGatherResourcesTask extends SwingWorker<Void, String> {
                 }
             }
             
+        } catch (InterruptedException e) {
+            Main.addToConsole("🛑 " + instance.name + " hibernating auto gather interrupted");
         } finally {
-            // Ensure instance is running when we exit
-            if (!BotUtils.isInstanceRunning(instance.index)) {
-                wakeUpInstance();
+            // A wake dispatched meanwhile may already be running the next cycle
+            cycleThread.compareAndSet(self, null);
+            if (!handedOff) {
+                finishGathering();
             }
-            
-            instance.setAutoGatherRunning(false);
-            updateInstanceStatus("Hibernating auto gather stopped");
-            Main.addToConsole("🛑 " + instance.name + " hibernating auto gather stopped");
         }
+    }
+    
+    /**
+     * Called by WakeScheduler on a wake worker thread when the wake is due
+     */
+    private void onScheduledWake() {
+        parked = false;
+        if (shouldStop || !instance.isAutoGatherRunning()) {
+            finishGathering();
+            return;
+        }
+        Main.addToConsole("🌅 " + instance.name + " waking up for new deployment");
+        runGatherCycle(true);
+    }
+    
+    private void finishGathering() {
+        WakePlanner.release(instance.index);
         
-        return null;
+        // Ensure instance is running when we exit
+        if (!BotUtils.isInstanceRunning(instance.index)) {
+            wakeUpInstance();
+        }
+        
+        instance.setAutoGatherRunning(false);
+        updateInstanceStatus("Hibernating auto gather stopped");
+        Main.addToConsole("🛑 " + instance.name + " hibernating auto gather stopped");
     }
     
     /**
@@ -332,7 +463,7 @@ public class AutoGatherResourcesTask extends SwingWorker<Void, String> {
             
             // Wait for Auto Start Game to complete (with timeout)
             int waitTime = 0;
-            int maxWaitTime = 120; // 2 minutes maximum wait
+            long maxWaitTime = BootLatencyModel.getReadyTimeoutSeconds(instance.index);
             
             while (!autoStartTask.isDone() && waitTime < maxWaitTime) {
                 Thread.sleep(1000);
@@ -345,7 +476,6 @@ public class AutoGatherResourcesTask extends SwingWorker<Void, String> {
             
             if (autoStartTask.isDone()) {
                 Main.addToConsole("✅ " + instance.name + " Auto Start Game completed after hibernation");
-                Thread.sleep(8000); // Give game time to fully load
                 return true;
             } else {
                 Main.addToConsole("⚠️ " + instance.name + " Auto Start Game timed out after hibernation");
@@ -396,12 +526,22 @@ public class AutoGatherResourcesTask extends SwingWorker<Void, String> {
             
             // STEP 6: Hibernate if time is sufficient
             if (hibernationTime > MIN_HIBERNATION_TIME) {
+                // Stagger against the rest of the fleet so boots don't pile up
+                WakePlanner.Plan plan = WakePlanner.plan(instance.index, hibernationTime, MIN_HIBERNATION_TIME, deployedMarches.size());
+                hibernationTime = plan.delaySeconds;
+                if (plan.lostMarchSeconds > 0) {
+                    Main.addToConsole("📅 " + instance.name + " wake moved " + TimeUtils.formatTime(plan.shiftSeconds) +
+                                    " later to stagger boots, " + TimeUtils.formatTime(plan.lostMarchSeconds) + " of idle march time");
+                }
                 Main.addToConsole("💤 " + instance.name + " hibernating for " + TimeUtils.formatTime(hibernationTime) + " (smart timing)");
                 hibernateInstance(hibernationTime);
+                nextWakeDelaySeconds = hibernationTime;
                 return true;
             } else {
                 Main.addToConsole("⏰ " + instance.name + " hibernation time too short (" + 
                                 TimeUtils.formatTime(hibernationTime) + "), staying awake");
+                // No boot to wait for, so come back when the marches actually return
+                nextWakeDelaySeconds = hibernationTime + wakeLeadSeconds();
                 return true;
             }
             
@@ -453,7 +593,7 @@ public class AutoGatherResourcesTask extends SwingWorker<Void, String> {
             
             // STRATEGY 1: Small spread - wait for all to complete
             if (spread <= COMPLETION_SPREAD_THRESHOLD) {
-                long hibernationTime = longestTime - WAKE_UP_BUFFER_SECONDS;
+                long hibernationTime = longestTime - wakeLeadSeconds();
                 System.out.println("✅ [SMART HIBERNATION] Small spread detected - hibernating until all complete");
                 System.out.println("  Hibernation time: " + TimeUtils.formatTime(hibernationTime));
                 return Math.max(0, hibernationTime);
@@ -487,7 +627,7 @@ public class AutoGatherResourcesTask extends SwingWorker<Void, String> {
         // OPTION A: Wake up for the first significant cluster
         CompletionCluster firstCluster = clusters.get(0);
         if (firstCluster.size >= 2 || firstCluster.averageTime >= MIN_RESTART_INTERVAL) {
-            long hibernationTime = firstCluster.averageTime - WAKE_UP_BUFFER_SECONDS;
+            long hibernationTime = firstCluster.averageTime - wakeLeadSeconds();
             System.out.println("✅ [OPTIMAL RESTART] Strategy: Wake for first cluster");
             System.out.println("  Will restart when " + firstCluster.size + " queue(s) complete");
             System.out.println("  Hibernation time: " + TimeUtils.formatTime(hibernationTime));
@@ -501,7 +641,7 @@ public class AutoGatherResourcesTask extends SwingWorker<Void, String> {
             
             // If this cluster is significantly later and has multiple queues
             if (timeDifference >= MIN_RESTART_INTERVAL && cluster.size >= 2) {
-                long hibernationTime = cluster.averageTime - WAKE_UP_BUFFER_SECONDS;
+                long hibernationTime = cluster.averageTime - wakeLeadSeconds();
                 System.out.println("✅ [OPTIMAL RESTART] Strategy: Skip first cluster, wake for cluster " + (i+1));
                 System.out.println("  Will restart when " + cluster.size + " queue(s) complete");
                 System.out.println("  Hibernation time: " + TimeUtils.formatTime(hibernationTime));
@@ -510,7 +650,7 @@ public class AutoGatherResourcesTask extends SwingWorker<Void, String> {
         }
         
         // OPTION C: Fallback - just wake for the first completion
-        long hibernationTime = firstCluster.averageTime - WAKE_UP_BUFFER_SECONDS;
+        long hibernationTime = firstCluster.averageTime - wakeLeadSeconds();
         System.out.println("⚠️ [OPTIMAL RESTART] Fallback: Wake for first completion");
         System.out.println("  Hibernation time: " + TimeUtils.formatTime(hibernationTime));
         return Math.max(0, hibernationTime);
@@ -810,7 +950,7 @@ public class AutoGatherResourcesTask extends SwingWorker<Void, String> {
             }
         }
         
-        return Math.max(0, maxCompletionTime - WAKE_UP_BUFFER_SECONDS);
+        return Math.max(0, maxCompletionTime - wakeLeadSeconds());
     }
     
     /**
@@ -832,51 +972,4 @@ public class AutoGatherResourcesTask extends SwingWorker<Void, String> {
         
         return maxDeployTime;
     }
-    
-    /**
-     * Monitor hibernation and wake up when marches are about to complete
-     */
-    private boolean monitorHibernationAndWakeup() {
-        try {
-            // Check if hibernation time is up
-            if (hibernationStartTime != null && hibernationDurationSeconds > 0) {
-                long elapsedHibernation = java.time.Duration.between(hibernationStartTime, LocalDateTime.now()).getSeconds();
-                long remainingHibernation = hibernationDurationSeconds - elapsedHibernation;
-                
-                if (remainingHibernation <= 0) {
-                    // Time to wake up
-                    Main.addToConsole("🌅 " + instance.name + " hibernation time complete, waking up");
-                    wakeUpInstance();
-                    hibernationStartTime = null;
-                    hibernationDurationSeconds = 0;
-                    return true;
-                }
-                
-                return false;
-            }
-            
-            // Fallback: Check march completion times from tracker
-            List<ActiveMarch> activeMarches = MarchTrackerGUI.getInstance().getActiveMarches();
-            List<ActiveMarch> instanceMarches = new ArrayList<>();
-            
-            for (ActiveMarch march : activeMarches) {
-                if (march.getInstanceIndex() == instance.index) {
-                    instanceMarches.add(march);
-                }
-            }
-            
-            if (instanceMarches.isEmpty()) {
-                // No active marches - wake up and deploy new ones
-                Main.addToConsole("🌅 " + instance.name + " no active marches, waking up");
-                wakeUpInstance();
-                return true;
-            }
-            
-            return false;
-            
-        } catch (Exception e) {
-            System.err.println("❌ Error monitoring hibernation: " + e.getMessage());
-            return false;
-        }
-    }
 }
\ No newline at end of file
@@ -1,8 +1,12 @@
 package newgame;
 
+import org.opencv.core.Mat;
 import java.awt.Point;
+import java.awt.Rectangle;
 import java.nio.file.Paths;
 import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
 
 public class AutoStartGameTask extends javax.swing.SwingWorker<Void, String> {
     private final MemuInstance instance;
@@ -205,54 +209,49 @@ public class AutoStartGameTask extends javax.swing.SwingWorker<Void, String> {
      * OPTIMIZED: Single comprehensive check for game status, popups, and launcher
      */
     private GameStatusResult performComprehensiveStatusCheck(String screenPath) {
+        // Decode the screenshot once for all template checks below
+        try (ScreenFrame frame = ScreenFrame.fromFile(screenPath, instance.index)) {
+            return performComprehensiveStatusCheck(frame);
+        }
+    }
+
+    private GameStatusResult performComprehensiveStatusCheck(ScreenFrame frame) {
         System.out.println("🔍 Performing comprehensive game status check...");
         
         GameStatusResult result = new GameStatusResult();
         
-        // Check for game running indicators FIRST (highest priority)
-        Point worldIcon = BotUtils.findImageOnScreen(screenPath, "world_icon.png", 0.7);
-        if (worldIcon != null) {
-            System.out.println("✅ Found world_icon.png - Game is running!");
-            result.gameRunning = true;
-            return result; // Early return if game is running
-        }
-        
-        Point gameIcon = BotUtils.findImageOnScreen(screenPath, "game_icon.png", 0.7);
-        if (gameIcon != null) {
-            System.out.println("✅ Found game_icon.png - Game is running!");
-            result.gameRunning = true;
-            return result; // Early return if game is running
-        }
-        
-        Point townIcon = BotUtils.findImageOnScreen(screenPath, "town_icon.png", 0.7);
-        if (townIcon != null) {
-            System.out.println("✅ Found town_icon.png - Game is running!");
-            result.gameRunning = true;
-            return result; // Early return if game is running
-        }
-        
-        // Check for popups (second priority)
-        String[] popupCloseButtons = {"close_x.png", "close_x2.png", "close_x3.png", "close_x4.png"};
-        for (String closeBtn : popupCloseButtons) {
-            Point popupLoc = BotUtils.findImageOnScreen(screenPath, closeBtn, 0.8);
-            if (popupLoc != null && isValidPopupLocation(popupLoc)) {
-                System.out.println("🚫 Found valid popup: " + closeBtn + " at " + popupLoc);
-                result.popupFound = true;
-                result.popupLocation = popupLoc;
-                result.popupType = closeBtn;
-                return result; // Return after finding first valid popup
-            }
+        // Priority tiers: game running indicators, then popups, then the launcher.
+        // Each template is matched once and all of its thresholds applied to that one score.
+        List<TemplateMatcher.Query> queries = new ArrayList<>();
+        queries.add(new TemplateMatcher.Query("world_icon.png", 0, 0.7));
+        queries.add(new TemplateMatcher.Query("game_icon.png", 0, 0.7));
+        queries.add(new TemplateMatcher.Query("town_icon.png", 0, 0.7));
+        for (String closeBtn : new String[] {"close_x.png", "close_x2.png", "close_x3.png", "close_x4.png"}) {
+            queries.add(new TemplateMatcher.Query(closeBtn, 1, 0.8)
+                .within(popupSearchRegion(closeBtn))
+                .accept(this::isValidPopupLocation));
         }
+        queries.add(new TemplateMatcher.Query("game_launcher.png", 2, 0.8, 0.7, 0.6, 0.5));
         
-        // Check for game launcher (lowest priority)
-        double[] confidences = {0.8, 0.7, 0.6, 0.5};
-        for (double confidence : confidences) {
-            Point launcher = BotUtils.findImageOnScreen(screenPath, "game_launcher.png", confidence);
-            if (launcher != null) {
-                System.out.println("🚀 Found game launcher at: " + launcher + " (confidence: " + confidence + ")");
-                result.launcherFound = true;
-                result.launcherLocation = launcher;
-                return result; // Return after finding launcher
+        List<TemplateMatcher.Hit> hits = TemplateMatcher.matchFirstTier(frame, queries);
+        if (!hits.isEmpty()) {
+            TemplateMatcher.Hit hit = firstInQueryOrder(hits, queries);
+            switch (hit.query.priority) {
+                case 0:
+                    System.out.println("✅ Found " + hit.query.templateName + " - Game is running!");
+                    result.gameRunning = true;
+                    return result;
+                case 1:
+                    System.out.println("🚫 Found valid popup: " + hit.query.templateName + " at " + hit.location);
+                    result.popupFound = true;
+                    result.popupLocation = hit.location;
+                    result.popupType = hit.query.templateName;
+                    return result;
+                default:
+                    System.out.println("🚀 Found game launcher at: " + hit.location + " (confidence: " + hit.threshold + ")");
+                    result.launcherFound = true;
+                    result.launcherLocation = hit.location;
+                    return result;
             }
         }
         
@@ -260,6 +259,32 @@ public class AutoStartGameTask extends javax.swing.SwingWorker<Void, String> {
         return result;
     }
 
+    /**
+     * Pick the hit whose query was listed first, matching the old sequential check order
+     */
+    private TemplateMatcher.Hit firstInQueryOrder(List<TemplateMatcher.Hit> hits, List<TemplateMatcher.Query> queries) {
+        for (TemplateMatcher.Query query : queries) {
+            for (TemplateMatcher.Hit hit : hits) {
+                if (hit.query == query) {
+                    return hit;
+                }
+            }
+        }
+        return hits.get(0);
+    }
+
+    /**
+     * Screen area a close button can occupy when its top-left corner lies in
+     * the box isValidPopupLocation accepts, so matching skips the rest
+     */
+    private Rectangle popupSearchRegion(String templateName) {
+        Mat template = TemplateCache.getGray(templateName);
+        if (template == null) {
+            return null;
+        }
+        return new Rectangle(20, 50, 460 - 20 + template.cols(), 750 - 50 + template.rows());
+    }
+
     /**
      * IMPROVED: Validate popup location to avoid false positives but allow valid game popups
      */
@@ -0,0 +1,140 @@
+package newgame;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.reflect.TypeToken;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Measured time from "memuc start" to the game being ready, per instance.
+ * Used to wake a hibernating instance just early enough for the game to be
+ * ready when its marches return. Waking earlier wastes emulator time and
+ * waking later leaves marches idle. Persisted to boot_latency.json.
+ */
+public class BootLatencyModel {
+    private static final String MODEL_FILE = "boot_latency.json";
+    private static final int MAX_SAMPLES = 20;
+    private static final int MIN_SAMPLES = 3;
+    private static final double WAKE_PERCENTILE = 0.9;
+    private static final long LEAD_MARGIN_SECONDS = 10;
+    // Used until an instance (or the fleet) has enough samples
+    private static final long DEFAULT_LEAD_SECONDS = 120;
+    private static final long DEFAULT_READY_TIMEOUT_SECONDS = 120;
+
+    private static final Gson gson = new GsonBuilder().setPrettyPrinting().create();
+    // Most recent time-to-ready samples in milliseconds, oldest first
+    private static Map<Integer, List<Long>> samples = new TreeMap<>();
+
+    static {
+        load();
+    }
+
+    /**
+     * Record one wake: milliseconds from the start command until the game was ready
+     */
+    public static synchronized void record(int instanceIndex, long readyMillis) {
+        List<Long> history = samples.computeIfAbsent(instanceIndex, key -> new ArrayList<>());
+        history.add(readyMillis);
+        while (history.size() > MAX_SAMPLES) {
+            history.remove(0);
+        }
+        System.out.println("⏱️ [BOOT] Instance " + instanceIndex + " ready in " + TimeUtils.formatTime(Math.round(readyMillis / 1000.0)) +
+                           " (p50 " + TimeUtils.formatTime(percentileSeconds(instanceIndex, 0.5)) +
+                           ", p90 " + TimeUtils.formatTime(percentileSeconds(instanceIndex, WAKE_PERCENTILE)) + ")");
+        save();
+    }
+
+    /**
+     * Record a wake that was still not ready after readyMillis. The true time
+     * is at least that long, so it is kept as a sample of readyMillis rather
+     * than dropped, which would make slow boots look fast.
+     */
+    public static synchronized void recordTimeout(int instanceIndex, long readyMillis) {
+        System.out.println("⚠️ [BOOT] Instance " + instanceIndex + " not ready after " +
+                           TimeUtils.formatTime(Math.round(readyMillis / 1000.0)) + ", recording it as at least that");
+        record(instanceIndex, readyMillis);
+    }
+
+    /**
+     * How long before the marches return the instance should be started
+     */
+    public static synchronized long getWakeLeadSeconds(int instanceIndex) {
+        long p90 = percentileSeconds(instanceIndex, WAKE_PERCENTILE);
+        return p90 > 0 ? p90 + LEAD_MARGIN_SECONDS : DEFAULT_LEAD_SECONDS;
+    }
+
+    /**
+     * How long to keep polling for readiness before treating the wake as failed
+     */
+    public static synchronized long getReadyTimeoutSeconds(int instanceIndex) {
+        return Math.max(DEFAULT_READY_TIMEOUT_SECONDS, 2 * percentileSeconds(instanceIndex, WAKE_PERCENTILE));
+    }
+
+    /**
+     * Percentile of the instance's time-to-ready in seconds, falling back to
+     * the whole fleet while the instance has too few samples. 0 if unknown.
+     */
+    public static synchronized long percentileSeconds(int instanceIndex, double fraction) {
+        List<Long> history = samples.getOrDefault(instanceIndex, Collections.emptyList());
+        if (history.size() < MIN_SAMPLES) {
+            history = new ArrayList<>();
+            for (List<Long> instanceHistory : samples.values()) {
+                history.addAll(instanceHistory);
+            }
+            if (history.size() < MIN_SAMPLES) {
+                return 0;
+            }
+        }
+        List<Long> sorted = new ArrayList<>(history);
+        Collections.sort(sorted);
+        int index = (int) Math.ceil(fraction * sorted.size()) - 1;
+        long millis = sorted.get(Math.max(0, Math.min(index, sorted.size() - 1)));
+        return (millis + 999) / 1000;
+    }
+
+    public static synchronized String describe() {
+        if (samples.isEmpty()) {
+            return "No boot latency recorded yet";
+        }
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<Integer, List<Long>> entry : samples.entrySet()) {
+            int index = entry.getKey();
+            sb.append(String.format("Instance %d: %d boots, p50 %s, p90 %s, wake lead %s%n", index, entry.getValue().size(),
+                TimeUtils.formatTime(percentileSeconds(index, 0.5)), TimeUtils.formatTime(percentileSeconds(index, WAKE_PERCENTILE)),
+                TimeUtils.formatTime(getWakeLeadSeconds(index))));
+        }
+        return sb.toString().trim();
+    }
+
+    private static synchronized void load() {
+        File file = new File(MODEL_FILE);
+        if (!file.exists()) {
+            return;
+        }
+        try (FileReader reader = new FileReader(file)) {
+            java.lang.reflect.Type type = new TypeToken<TreeMap<Integer, List<Long>>>(){}.getType();
+            Map<Integer, List<Long>> loaded = gson.fromJson(reader, type);
+            if (loaded != null) {
+                samples = loaded;
+                System.out.println("⏱️ [BOOT] Loaded boot latency history for " + samples.size() + " instances");
+            }
+        } catch (Exception e) {
+            System.err.println("⚠️ [BOOT] Could not load " + MODEL_FILE + ": " + e.getMessage());
+        }
+    }
+
+    private static synchronized void save() {
+        try (FileWriter writer = new FileWriter(MODEL_FILE)) {
+            gson.toJson(samples, writer);
+        } catch (Exception e) {
+            System.err.println("⚠️ [BOOT] Could not save " + MODEL_FILE + ": " + e.getMessage());
+        }
+    }
+}
@@ -6,11 +6,14 @@ import org.opencv.imgproc.Imgproc;
 import java.awt.Point;
 import java.awt.Rectangle;
 import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
 import javax.imageio.ImageIO;
 import java.awt.Graphics2D;
-import java.awt.Color;
 import java.io.*;
 import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 public class BotUtils {
@@ -18,6 +21,30 @@ public class BotUtils {
     public static final String SCREENSHOTS_DIR = "screenshots";
     public static boolean openCvLoaded = false;
 
+    /**
+     * Frame encoding requested from screencap. RAW skips PNG encoding on the
+     * device and PNG decoding on the host.
+     */
+    public enum CaptureFormat {
+        PNG,
+        RAW
+    }
+
+    public static volatile CaptureFormat captureFormat = CaptureFormat.RAW;
+    static final int RAW_FORMAT_RGBA_8888 = 1;
+    static final int RAW_FORMAT_RGBX_8888 = 2;
+    private static final byte[] PNG_SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+    // Zero-length IEND chunk: length, type and CRC
+    private static final byte[] PNG_IEND = {0, 0, 0, 0, 'I', 'E', 'N', 'D', (byte) 0xAE, 0x42, 0x60, (byte) 0x82};
+
+    // Screen change detection works on tiny grayscale thumbnails of each frame
+    private static final int SIGNATURE_WIDTH = 32;
+    private static final int SIGNATURE_HEIGHT = 52;
+    private static final double SCREEN_CHANGE_THRESHOLD = 3.0;
+    private static final int STABLE_FRAMES_REQUIRED = 2;
+    private static final long SCREEN_POLL_INTERVAL_MS = 100;
+    private static final long FIRST_FRAME_TIMEOUT_MS = 1500;
+
     static {
         try {
             System.loadLibrary(Core.NATIVE_LIBRARY_NAME);
@@ -32,6 +59,7 @@ public class BotUtils {
 
     public static void init() {
         System.out.println("=== MEmu Instance Manager Starting ===");
+        TemplateCache.preload();
     }
 
     public static boolean isOpenCvLoaded() {
@@ -84,26 +112,36 @@ public class BotUtils {
         try {
             createDirectoryIfNeeded(SCREENSHOTS_DIR);
             
-            ProcessBuilder captureBuilder = new ProcessBuilder(
-                MEMUC_PATH, "adb", "-i", String.valueOf(index),
-                "shell", "screencap", "-p", "/sdcard/screen.png"
-            );
-            Process captureProcess = captureBuilder.start();
+            byte[] pngBytes = captureScreenBytes(index, CaptureFormat.PNG);
+            if (pngBytes != null && isCompletePng(pngBytes)) {
+                Files.write(Paths.get(savePath), pngBytes);
+                System.out.println("Screenshot saved: " + savePath + " (" + pngBytes.length + " bytes)");
+                return true;
+            }
             
-            boolean captureSuccess = captureProcess.waitFor(10, TimeUnit.SECONDS) && 
-                                   captureProcess.exitValue() == 0;
+            System.out.println("⚠️ exec-out capture failed for instance " + index + ", falling back to screencap + pull");
+            return takeScreenshotViaDevice(index, savePath);
+        } catch (IOException e) {
+            System.err.println("Screenshot error: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private static boolean takeScreenshotViaDevice(int index, String savePath) {
+        try {
+            boolean captureSuccess = runShellCommand(index, 10, "screencap", "-p", "/sdcard/screen.png");
             
             if (!captureSuccess) {
                 System.err.println("Screenshot capture failed for instance " + index);
                 return false;
             }
 
-            Thread.sleep(500);
-
             ProcessBuilder pullBuilder = new ProcessBuilder(
                 MEMUC_PATH, "adb", "-i", String.valueOf(index),
                 "pull", "/sdcard/screen.png", savePath
             );
+            pullBuilder.redirectOutput(ProcessBuilder.Redirect.DISCARD);
+            pullBuilder.redirectError(ProcessBuilder.Redirect.DISCARD);
             Process pullProcess = pullBuilder.start();
             
             boolean pullSuccess = pullProcess.waitFor(10, TimeUnit.SECONDS) && 
@@ -115,7 +153,7 @@ public class BotUtils {
             }
 
             File screenshotFile = new File(savePath);
-            boolean success = screenshotFile.exists() && screenshotFile.length() > 0;
+            boolean success = screenshotFile.exists() && isCompletePng(Files.readAllBytes(screenshotFile.toPath()));
             
             if (success) {
                 System.out.println("Screenshot saved: " + savePath + " (" + screenshotFile.length() + " bytes)");
@@ -131,6 +169,221 @@ public class BotUtils {
         }
     }
 
+    /**
+     * Stream one frame straight from screencap via exec-out, without touching
+     * the device's sdcard or the local disk. Returns null on failure.
+     */
+    public static byte[] captureScreenBytes(int index, CaptureFormat format) {
+        try {
+            List<String> command = new ArrayList<>(Arrays.asList(
+                MEMUC_PATH, "adb", "-i", String.valueOf(index), "exec-out", "screencap"
+            ));
+            if (format == CaptureFormat.PNG) {
+                command.add("-p");
+            }
+            
+            // stderr is never read; left as a pipe it can fill and stall screencap
+            Process process = new ProcessBuilder(command)
+                .redirectError(ProcessBuilder.Redirect.DISCARD)
+                .start();
+            byte[] data = readProcessOutput(process, TimeUnit.SECONDS.toMillis(10));
+            
+            if (data == null || process.exitValue() != 0 || data.length < 16) {
+                System.err.println("Screen capture failed for instance " + index);
+                return null;
+            }
+            if (format == CaptureFormat.PNG && !isCompletePng(data)) {
+                System.err.println("Screen capture for instance " + index + " returned a truncated or non-PNG stream (" + data.length + " bytes)");
+                return null;
+            }
+            
+            return data;
+        } catch (IOException | InterruptedException e) {
+            System.err.println("Screen capture error: " + e.getMessage());
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Capture the screen into a BGR Mat using the configured capture format
+     */
+    public static Mat captureScreenMat(int index) {
+        if (!openCvLoaded) {
+            System.err.println("OpenCV not loaded, cannot capture screen into Mat");
+            return null;
+        }
+        
+        if (captureFormat == CaptureFormat.RAW) {
+            byte[] raw = captureScreenBytes(index, CaptureFormat.RAW);
+            Mat screen = raw != null ? decodeRawScreen(raw) : null;
+            if (screen != null) {
+                return screen;
+            }
+            System.out.println("⚠️ Raw capture unusable for instance " + index + ", retrying as PNG");
+        }
+        
+        byte[] png = captureScreenBytes(index, CaptureFormat.PNG);
+        if (png == null) {
+            return null;
+        }
+        
+        Mat screen = Imgcodecs.imdecode(new MatOfByte(png), Imgcodecs.IMREAD_COLOR);
+        if (screen.empty()) {
+            System.err.println("Failed to decode captured PNG for instance " + index);
+            screen.release();
+            return null;
+        }
+        return screen;
+    }
+
+    /**
+     * Capture the screen into a BufferedImage using the configured capture format
+     */
+    public static BufferedImage captureScreenImage(int index) {
+        try {
+            if (captureFormat == CaptureFormat.RAW) {
+                byte[] raw = captureScreenBytes(index, CaptureFormat.RAW);
+                BufferedImage image = raw != null ? rawScreenToImage(raw) : null;
+                if (image != null) {
+                    return image;
+                }
+                System.out.println("⚠️ Raw capture unusable for instance " + index + ", retrying as PNG");
+            }
+            
+            byte[] png = captureScreenBytes(index, CaptureFormat.PNG);
+            return png != null ? ImageIO.read(new ByteArrayInputStream(png)) : null;
+        } catch (IOException e) {
+            System.err.println("Failed to decode captured screen: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Convert raw screencap output (little-endian width, height, format,
+     * optional colour space, then RGBA pixels) into a BGR Mat
+     */
+    private static Mat decodeRawScreen(byte[] raw) {
+        int width = readIntLE(raw, 0);
+        int height = readIntLE(raw, 4);
+        int format = readIntLE(raw, 8);
+        int headerSize = rawHeaderSize(raw, width, height, format);
+        if (headerSize < 0) {
+            return null;
+        }
+        
+        Mat rgba = new Mat(height, width, CvType.CV_8UC4);
+        rgba.put(0, 0, Arrays.copyOfRange(raw, headerSize, headerSize + width * height * 4));
+        
+        Mat bgr = new Mat();
+        Imgproc.cvtColor(rgba, bgr, Imgproc.COLOR_RGBA2BGR);
+        rgba.release();
+        return bgr;
+    }
+
+    private static BufferedImage rawScreenToImage(byte[] raw) {
+        int width = readIntLE(raw, 0);
+        int height = readIntLE(raw, 4);
+        int format = readIntLE(raw, 8);
+        int headerSize = rawHeaderSize(raw, width, height, format);
+        if (headerSize < 0) {
+            return null;
+        }
+        
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        int[] pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+        for (int i = 0, p = headerSize; i < pixels.length; i++, p += 4) {
+            pixels[i] = ((raw[p] & 0xFF) << 16) | ((raw[p + 1] & 0xFF) << 8) | (raw[p + 2] & 0xFF);
+        }
+        return image;
+    }
+
+    private static int rawHeaderSize(byte[] raw, int width, int height, int format) {
+        if (width <= 0 || height <= 0 || (format != RAW_FORMAT_RGBA_8888 && format != RAW_FORMAT_RGBX_8888)) {
+            System.err.println("Unsupported raw screencap header: " + width + "x" + height + " format " + format);
+            return -1;
+        }
+        
+        // Android 9+ appends a 4-byte colour space field to the 12-byte header
+        int headerSize = raw.length - width * height * 4;
+        if (headerSize != 12 && headerSize != 16) {
+            System.err.println("Unexpected raw screencap size: " + raw.length + " bytes for " + width + "x" + height);
+            return -1;
+        }
+        return headerSize;
+    }
+
+    /**
+     * True if the bytes start with the PNG signature and end with the IEND
+     * chunk, i.e. the stream was neither cut short nor polluted by text output
+     */
+    static boolean isCompletePng(byte[] data) {
+        if (data == null || data.length < PNG_SIGNATURE.length + PNG_IEND.length) {
+            return false;
+        }
+        for (int i = 0; i < PNG_SIGNATURE.length; i++) {
+            if (data[i] != PNG_SIGNATURE[i]) {
+                return false;
+            }
+        }
+        int tail = data.length - PNG_IEND.length;
+        for (int i = 0; i < PNG_IEND.length; i++) {
+            if (data[tail + i] != PNG_IEND[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static int readIntLE(byte[] data, int offset) {
+        return (data[offset] & 0xFF) |
+               ((data[offset + 1] & 0xFF) << 8) |
+               ((data[offset + 2] & 0xFF) << 16) |
+               ((data[offset + 3] & 0xFF) << 24);
+    }
+
+    /**
+     * Drain a process's stdout while waiting for it to exit, killing it if it
+     * runs past the timeout. Returns null on timeout.
+     */
+    static byte[] readProcessOutput(Process process, long timeoutMillis) throws IOException, InterruptedException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream(256 * 1024);
+        InputStream in = process.getInputStream();
+        byte[] buffer = new byte[64 * 1024];
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        
+        try {
+            while (true) {
+                int available = in.available();
+                if (available > 0) {
+                    int read = in.read(buffer, 0, Math.min(buffer.length, available));
+                    if (read > 0) {
+                        output.write(buffer, 0, read);
+                    }
+                    continue;
+                }
+                
+                if (process.waitFor(20, TimeUnit.MILLISECONDS)) {
+                    int read;
+                    while ((read = in.read(buffer)) != -1) {
+                        output.write(buffer, 0, read);
+                    }
+                    return output.toByteArray();
+                }
+                
+                if (System.currentTimeMillis() > deadline) {
+                    process.destroyForcibly();
+                    return null;
+                }
+            }
+        } catch (InterruptedException e) {
+            process.destroyForcibly();
+            throw e;
+        }
+    }
+
     public static Point findImageOnScreen(String screenshotPath, String templateName, double threshold, int maxRetries) {
         for (int attempt = 1; attempt <= maxRetries; attempt++) {
             Point result = findImageOnScreenSingle(screenshotPath, templateName, threshold);
@@ -164,88 +417,78 @@ public class BotUtils {
         return findImageOnScreen(screenshotPath, templateName, threshold, maxRetries);
     }
 
-    private static Point findImageOnScreenSingle(String screenshotPath, String templateName, double threshold) {
+    /**
+     * Match a template against an already decoded frame. Checking several
+     * templates against the same ScreenFrame only decodes the screenshot once.
+     */
+    public static Point findImageOnScreen(ScreenFrame frame, String templateName, double threshold) {
+        return findImageOnScreen(frame, templateName, threshold, TemplateMatcher.getDefaultRegion(templateName));
+    }
+
+    /**
+     * Match a template only inside the given region of the screen (null for the
+     * whole screen). The returned point is in full-screen coordinates.
+     */
+    public static Point findImageOnScreen(ScreenFrame frame, String templateName, double threshold, Rectangle region) {
         if (!openCvLoaded) {
             System.err.println("OpenCV not loaded, cannot perform image matching");
             return null;
         }
 
         try {
-            String templatePath = findTemplatePath(templateName);
-            if (templatePath == null) {
-                System.err.println("Template not found: " + templateName);
-                return null;
-            }
-
-            Mat template = Imgcodecs.imread(templatePath, Imgcodecs.IMREAD_GRAYSCALE);
-            Mat screen = Imgcodecs.imread(screenshotPath, Imgcodecs.IMREAD_GRAYSCALE);
-
-            if (template.empty()) {
-                System.err.println("Failed to load template: " + templateName);
+            Mat screen = frame.gray();
+            if (screen == null) {
+                System.err.println("Failed to load screenshot: " + frame.describe());
                 return null;
             }
-
-            if (screen.empty()) {
-                System.err.println("Failed to load screenshot: " + screenshotPath);
-                template.release();
-                return null;
-            }
-
-            Mat result = new Mat();
-            Imgproc.matchTemplate(screen, template, result, Imgproc.TM_CCOEFF_NORMED);
-
-            Core.MinMaxLocResult mmr = Core.minMaxLoc(result);
-            double confidence = mmr.maxVal;
-
-            template.release();
-            screen.release();
-            result.release();
-
-            if (confidence >= threshold) {
-                Point matchPoint = new Point((int)mmr.maxLoc.x, (int)mmr.maxLoc.y);
-                System.out.println("Found template at: (" + matchPoint.x + ", " + matchPoint.y + ") for " + templateName + " (confidence: " + String.format("%.3f", confidence) + ")");
-                return matchPoint;
-            } else {
-                System.out.println("Template not found - confidence too low for " + templateName + " (confidence: " + String.format("%.3f", confidence) + ", threshold: " + threshold + ")");
-                return null;
-            }
-
+            return matchTemplate(frame, templateName, threshold, region);
         } catch (Exception e) {
             System.err.println("Error in image matching: " + e.getMessage());
             return null;
         }
     }
 
-    private static String findTemplatePath(String imageName) {
-        File srcImagesFile = new File("src/images/" + imageName);
-        if (srcImagesFile.exists()) {
-            return srcImagesFile.getAbsolutePath();
+    public static Point findImageOnScreen(String screenshotPath, String templateName, double threshold, Rectangle region) {
+        try (ScreenFrame frame = ScreenFrame.fromFile(screenshotPath)) {
+            return findImageOnScreen(frame, templateName, threshold, region);
         }
+    }
 
-        File currentDirFile = new File(imageName);
-        if (currentDirFile.exists()) {
-            return currentDirFile.getAbsolutePath();
+    private static Point findImageOnScreenSingle(String screenshotPath, String templateName, double threshold) {
+        try (ScreenFrame frame = ScreenFrame.fromFile(screenshotPath)) {
+            return findImageOnScreen(frame, templateName, threshold);
         }
+    }
 
-        File imagesSubdirFile = new File("images/" + imageName);
-        if (imagesSubdirFile.exists()) {
-            return imagesSubdirFile.getAbsolutePath();
+    private static Point matchTemplate(ScreenFrame frame, String templateName, double threshold, Rectangle region) {
+        if (TemplateCache.resolvePath(templateName) == null) {
+            System.err.println("Template not found: " + templateName);
+            return null;
         }
 
-        return null;
+        TemplateMatcher.MatchScore score = TemplateMatcher.findTemplate(frame, templateName, region, threshold);
+        if (score == null) {
+            System.err.println("Failed to match template: " + templateName);
+            return null;
+        }
+        double confidence = score.confidence;
+
+        if (confidence >= threshold) {
+            Point matchPoint = score.location;
+            System.out.println("Found template at: (" + matchPoint.x + ", " + matchPoint.y + ") for " + templateName + " (confidence: " + String.format("%.3f", confidence) + ")");
+            return matchPoint;
+        } else {
+            System.out.println("Template not found - confidence too low for " + templateName + " (confidence: " + String.format("%.3f", confidence) + ", threshold: " + threshold + ")");
+            return null;
+        }
     }
 
     public static boolean clickMenu(int index, Point pt) {
         try {
-            ProcessBuilder builder = new ProcessBuilder(
-                MEMUC_PATH, "adb", "-i", String.valueOf(index),
-                "shell", "input", "tap",
+            boolean success = runShellCommand(index, 5, "input", "tap",
                 String.valueOf((int)pt.getX()),
                 String.valueOf((int)pt.getY())
             );
-            Process process = builder.start();
-            
-            boolean success = process.waitFor(5, TimeUnit.SECONDS) && process.exitValue() == 0;
             
             if (success) {
                 System.out.println("Clicked at " + pt + " on instance " + index);
@@ -261,6 +504,32 @@ public class BotUtils {
         }
     }
 
+    /**
+     * Run a device shell command over the instance's persistent adb session,
+     * falling back to a one-off "memuc adb shell" process only if the session
+     * never accepted the command. A command that was sent but timed out or was
+     * interrupted is reported as failed, never re-sent, so a tap can't land twice.
+     */
+    private static boolean runShellCommand(int index, long timeoutSeconds, String... shellArgs) throws IOException, InterruptedException {
+        AdbSession.ShellResult result = AdbSession.forInstance(index)
+            .execute(String.join(" ", shellArgs), TimeUnit.SECONDS.toMillis(timeoutSeconds));
+        if (result.completed) {
+            return result.exitCode == 0;
+        }
+        if (result.sent || Thread.currentThread().isInterrupted()) {
+            return false;
+        }
+        
+        List<String> command = new ArrayList<>(Arrays.asList(MEMUC_PATH, "adb", "-i", String.valueOf(index), "shell"));
+        command.addAll(Arrays.asList(shellArgs));
+        Process process = new ProcessBuilder(command)
+            .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+            .redirectError(ProcessBuilder.Redirect.DISCARD)
+            .start();
+        
+        return process.waitFor(timeoutSeconds, TimeUnit.SECONDS) && process.exitValue() == 0;
+    }
+
     public static boolean delay(int milliseconds) {
         try {
             Thread.sleep(milliseconds);
@@ -271,6 +540,249 @@ public class BotUtils {
         }
     }
 
+    /**
+     * Tap and then wait for the UI to react and settle, up to maxWaitMillis.
+     * Replaces a fixed sleep after the tap; slow instances still get the full wait.
+     */
+    public static boolean clickAndWait(int index, Point pt, long maxWaitMillis) throws InterruptedException {
+        return clickAndWait(index, pt, maxWaitMillis, null);
+    }
+
+    /**
+     * Like clickAndWait, comparing against the signature of a frame the caller
+     * already captured instead of taking a fresh one before the tap
+     */
+    public static boolean clickAndWait(int index, Point pt, long maxWaitMillis, byte[] before) throws InterruptedException {
+        try (ScreenStream stream = ScreenStream.open(index, SCREEN_POLL_INTERVAL_MS)) {
+            if (before == null) {
+                before = firstSignature(index, stream);
+            }
+            if (!clickMenu(index, pt)) {
+                return false;
+            }
+            waitForScreenChange(index, stream, before, maxWaitMillis);
+            return true;
+        }
+    }
+
+    /**
+     * Swipe and then wait for the scroll to finish, up to maxWaitMillis
+     */
+    public static boolean swipeAndWait(int index, Point startPoint, Point endPoint, long maxWaitMillis) throws InterruptedException {
+        return swipeAndWait(index, startPoint, endPoint, maxWaitMillis, null);
+    }
+
+    public static boolean swipeAndWait(int index, Point startPoint, Point endPoint, long maxWaitMillis, byte[] before) throws InterruptedException {
+        try (ScreenStream stream = ScreenStream.open(index, SCREEN_POLL_INTERVAL_MS)) {
+            if (before == null) {
+                before = firstSignature(index, stream);
+            }
+            if (!performADBSwipe(index, startPoint, endPoint)) {
+                return false;
+            }
+            waitForScreenChange(index, stream, before, maxWaitMillis);
+            return true;
+        }
+    }
+
+    /**
+     * Wait until the screen differs from the given signature and then stays
+     * still for a couple of polls. Returns false if that did not happen within
+     * maxWaitMillis, in which case the full time has been waited.
+     */
+    public static boolean waitForScreenChange(int index, byte[] before, long maxWaitMillis) throws InterruptedException {
+        try (ScreenStream stream = ScreenStream.open(index, SCREEN_POLL_INTERVAL_MS)) {
+            return waitForScreenChange(index, stream, before, maxWaitMillis);
+        }
+    }
+
+    private static boolean waitForScreenChange(int index, ScreenStream stream, byte[] before, long maxWaitMillis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + maxWaitMillis;
+        if (before == null) {
+            sleepUntil(deadline);
+            return false;
+        }
+
+        byte[] previous = before;
+        boolean changed = false;
+        int stableFrames = 0;
+
+        while (System.currentTimeMillis() < deadline) {
+            byte[] current = nextSignature(index, stream, deadline);
+            if (current == null) {
+                if (stream != null && stream.isAlive()) {
+                    continue;
+                }
+                sleepUntil(deadline);
+                return false;
+            }
+
+            if (!changed) {
+                changed = signatureDistance(before, current) > SCREEN_CHANGE_THRESHOLD;
+            } else if (signatureDistance(previous, current) <= SCREEN_CHANGE_THRESHOLD) {
+                if (++stableFrames >= STABLE_FRAMES_REQUIRED) {
+                    return true;
+                }
+            } else {
+                stableFrames = 0;
+            }
+            previous = current;
+        }
+        return false;
+    }
+
+    /**
+     * Wait until consecutive frames stop changing, up to maxWaitMillis
+     */
+    public static boolean waitForStable(int index, long maxWaitMillis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + maxWaitMillis;
+        try (ScreenStream stream = ScreenStream.open(index, SCREEN_POLL_INTERVAL_MS)) {
+            byte[] previous = firstSignature(index, stream);
+            int stableFrames = 0;
+
+            while (previous != null && System.currentTimeMillis() < deadline) {
+                byte[] current = nextSignature(index, stream, deadline);
+                if (current == null) {
+                    if (stream != null && stream.isAlive()) {
+                        continue;
+                    }
+                    break;
+                }
+
+                if (signatureDistance(previous, current) <= SCREEN_CHANGE_THRESHOLD) {
+                    if (++stableFrames >= STABLE_FRAMES_REQUIRED) {
+                        return true;
+                    }
+                } else {
+                    stableFrames = 0;
+                }
+                previous = current;
+            }
+        }
+
+        sleepUntil(deadline);
+        return false;
+    }
+
+    /**
+     * Next frame signature from the stream while it is delivering, otherwise
+     * from a one-off capture after the usual poll interval. Null if nothing
+     * arrived before the deadline or the capture failed.
+     */
+    private static byte[] nextSignature(int index, ScreenStream stream, long deadline) throws InterruptedException {
+        long remaining = Math.max(1, deadline - System.currentTimeMillis());
+        if (stream != null && stream.isAlive()) {
+            return stream.next(remaining);
+        }
+        Thread.sleep(Math.min(SCREEN_POLL_INTERVAL_MS, remaining));
+        return screenSignature(index);
+    }
+
+    private static byte[] firstSignature(int index, ScreenStream stream) throws InterruptedException {
+        byte[] signature = stream != null ? stream.next(FIRST_FRAME_TIMEOUT_MS) : null;
+        return signature != null ? signature : screenSignature(index);
+    }
+
+    /**
+     * Small grayscale thumbnail of the current screen, or null if capture failed
+     */
+    public static byte[] screenSignature(int index) {
+        if (captureFormat == CaptureFormat.RAW) {
+            byte[] raw = captureScreenBytes(index, CaptureFormat.RAW);
+            if (raw != null) {
+                int width = readIntLE(raw, 0);
+                int height = readIntLE(raw, 4);
+                int headerSize = rawHeaderSize(raw, width, height, readIntLE(raw, 8));
+                if (headerSize >= 0) {
+                    return screenSignature(raw, headerSize, width, height);
+                }
+            }
+        }
+        BufferedImage screen = captureScreenImage(index);
+        return screen != null ? screenSignature(screen) : null;
+    }
+
+    public static byte[] screenSignature(ScreenFrame frame) {
+        BufferedImage screen = frame != null ? frame.image() : null;
+        return screen != null ? screenSignature(screen) : null;
+    }
+
+    public static byte[] screenSignature(BufferedImage screen) {
+        int width = screen.getWidth();
+        int height = screen.getHeight();
+        int[] rgb = screen.getRGB(0, 0, width, height, null, 0, width);
+        long[] sums = new long[SIGNATURE_WIDTH * SIGNATURE_HEIGHT];
+        int[] counts = new int[sums.length];
+        int[] cellX = signatureCellColumns(width);
+        for (int y = 0; y < height; y++) {
+            int rowCell = (y * SIGNATURE_HEIGHT / height) * SIGNATURE_WIDTH;
+            for (int x = 0, p = y * width; x < width; x++, p++) {
+                int pixel = rgb[p];
+                int cell = rowCell + cellX[x];
+                sums[cell] += gray((pixel >> 16) & 0xFF, (pixel >> 8) & 0xFF, pixel & 0xFF);
+                counts[cell]++;
+            }
+        }
+        return averageCells(sums, counts);
+    }
+
+    /**
+     * Same signature computed straight from raw RGBA screencap pixels starting
+     * at offset, without building an image first
+     */
+    public static byte[] screenSignature(byte[] rgba, int offset, int width, int height) {
+        long[] sums = new long[SIGNATURE_WIDTH * SIGNATURE_HEIGHT];
+        int[] counts = new int[sums.length];
+        int[] cellX = signatureCellColumns(width);
+        for (int y = 0; y < height; y++) {
+            int rowCell = (y * SIGNATURE_HEIGHT / height) * SIGNATURE_WIDTH;
+            for (int x = 0, p = offset + y * width * 4; x < width; x++, p += 4) {
+                int cell = rowCell + cellX[x];
+                sums[cell] += gray(rgba[p] & 0xFF, rgba[p + 1] & 0xFF, rgba[p + 2] & 0xFF);
+                counts[cell]++;
+            }
+        }
+        return averageCells(sums, counts);
+    }
+
+    private static int[] signatureCellColumns(int width) {
+        int[] cellX = new int[width];
+        for (int x = 0; x < width; x++) {
+            cellX[x] = x * SIGNATURE_WIDTH / width;
+        }
+        return cellX;
+    }
+
+    private static int gray(int r, int g, int b) {
+        return (r * 299 + g * 587 + b * 114) / 1000;
+    }
+
+    private static byte[] averageCells(long[] sums, int[] counts) {
+        byte[] signature = new byte[sums.length];
+        for (int i = 0; i < sums.length; i++) {
+            signature[i] = (byte) (counts[i] > 0 ? sums[i] / counts[i] : 0);
+        }
+        return signature;
+    }
+
+    /**
+     * Mean absolute gray-level difference between two signatures
+     */
+    public static double signatureDistance(byte[] a, byte[] b) {
+        long total = 0;
+        for (int i = 0; i < a.length; i++) {
+            total += Math.abs((a[i] & 0xFF) - (b[i] & 0xFF));
+        }
+        return (double) total / a.length;
+    }
+
+    private static void sleepUntil(long deadline) throws InterruptedException {
+        long remaining = deadline - System.currentTimeMillis();
+        if (remaining > 0) {
+            Thread.sleep(remaining);
+        }
+    }
+
     public static boolean isInstanceRunning(int index) {
         try {
             ProcessBuilder builder = new ProcessBuilder(MEMUC_PATH, "isvmrunning", "-i", String.valueOf(index));
@@ -301,9 +813,7 @@ public class BotUtils {
 
     public static boolean performADBSwipe(int instanceIndex, Point startPoint, Point endPoint) {
         try {
-            ProcessBuilder swipeBuilder = new ProcessBuilder(
-                MEMUC_PATH, "adb", "-i", String.valueOf(instanceIndex),
-                "shell", "input", "swipe",
+            boolean success = runShellCommand(instanceIndex, 10, "input", "swipe",
                 String.valueOf((int)startPoint.getX()),
                 String.valueOf((int)startPoint.getY()),
                 String.valueOf((int)endPoint.getX()),
@@ -311,10 +821,6 @@ public class BotUtils {
                 "300"
             );
             
-            Process swipeProcess = swipeBuilder.start();
-            boolean success = swipeProcess.waitFor(10, TimeUnit.SECONDS) && 
-                             swipeProcess.exitValue() == 0;
-            
             if (success) {
                 System.out.println("✅ ADB swipe executed: " + startPoint + " → " + endPoint);
             } else {
@@ -331,7 +837,22 @@ public class BotUtils {
         }
     }
 
+    static final OCREngine.Config[] TIME_OCR_CONFIGS = {
+        OCREngine.Config.withWhitelist(8, 1, "0123456789:"),
+        OCREngine.Config.withWhitelist(7, 1, "0123456789:"),
+        OCREngine.Config.withWhitelist(8, 1, "0123456789"),
+        OCREngine.Config.withWhitelist(7, 0, "0123456789:"),
+        new OCREngine.Config(6, 1),
+    };
+
     public static String runTesseractOCR(String imagePath, int instanceIndex) {
+        return runTesseractOCR(imagePath, instanceIndex, "text_region");
+    }
+
+    /**
+     * OCR a time-like region, learning the best config order under the given region name
+     */
+    public static String runTesseractOCR(String imagePath, int instanceIndex, String region) {
         try {
             File imageFile = new File(imagePath);
             if (!imageFile.exists()) {
@@ -339,50 +860,7 @@ public class BotUtils {
                 return null;
             }
             
-            String tesseractPath = findTesseractPath();
-            if (tesseractPath == null) {
-                System.err.println("❌ Tesseract not found");
-                return null;
-            }
-            
-            String[][] ocrConfigs = {
-                {"--psm", "8", "--oem", "1", "-c", "tessedit_char_whitelist=0123456789:"},
-                {"--psm", "7", "--oem", "1", "-c", "tessedit_char_whitelist=0123456789:"},
-                {"--psm", "8", "--oem", "1", "-c", "tessedit_char_whitelist=0123456789"},
-                {"--psm", "7", "--oem", "0", "-c", "tessedit_char_whitelist=0123456789:"},
-                {"--psm", "6", "--oem", "1"},
-            };
-            
-            String bestResult = null;
-            double bestScore = 0;
-            
-            for (int i = 0; i < ocrConfigs.length; i++) {
-                try {
-                    String result = runTesseractWithConfig(tesseractPath, imagePath, ocrConfigs[i]);
-                    
-                    if (result != null && !result.trim().isEmpty()) {
-                        double score = scoreTimeExtractionResult(result);
-                        
-                        if (score > bestScore) {
-                            bestScore = score;
-                            bestResult = result.trim();
-                        }
-                        
-                        if (score >= 10.0) {
-                            return result.trim();
-                        }
-                    }
-                    
-                } catch (Exception e) {
-                    System.err.println("❌ OCR Config " + (i + 1) + " failed: " + e.getMessage());
-                }
-            }
-            
-            if (bestResult != null && bestScore > 0) {
-                return bestResult;
-            }
-            
-            return null;
+            return runTimeConfigs(OCREngine.readImage(imagePath), region);
             
         } catch (Exception e) {
             System.err.println("❌ Error running OCR: " + e.getMessage());
@@ -390,6 +868,22 @@ public class BotUtils {
         }
     }
 
+    /**
+     * OCR an in-memory region, served from the OCR result cache when the same
+     * pixels were read before. Nothing is written to disk; debugPath only
+     * receives sampled debug dumps.
+     */
+    public static String runTesseractOCR(BufferedImage regionImage, String debugPath, int instanceIndex, String region) {
+        return OCRUtils.cachedRead(regionImage, debugPath, region, TIME_OCR_CONFIGS,
+            image -> runTimeConfigs(image, region));
+    }
+
+    private static String runTimeConfigs(BufferedImage image, String region) {
+        OCRUtils.ScoredText best = OCRUtils.runConfigs(
+            region, image, TIME_OCR_CONFIGS, BotUtils::scoreTimeExtractionResult, 10.0, "Time");
+        return best != null ? best.text.trim() : null;
+    }
+
     public static String extractTextFromImage(String imagePath) {
         return runTesseractOCR(imagePath, 0);
     }
@@ -399,8 +893,18 @@ public class BotUtils {
     }
 
     public static String extractTextFromRegion(String imagePath, Rectangle region) {
+        try (ScreenFrame frame = ScreenFrame.fromFile(imagePath)) {
+            return extractTextFromRegion(frame, region, imagePath.replace(".png", "_region.png"));
+        }
+    }
+
+    public static String extractTextFromRegion(ScreenFrame frame, Rectangle region, String regionPath) {
         try {
-            BufferedImage fullImage = ImageIO.read(new File(imagePath));
+            BufferedImage fullImage = frame.image();
+            if (fullImage == null) {
+                System.err.println("❌ Could not load source image: " + frame.describe());
+                return null;
+            }
             
             int x = Math.max(0, region.x);
             int y = Math.max(0, region.y);
@@ -414,17 +918,7 @@ public class BotUtils {
             
             BufferedImage regionImage = fullImage.getSubimage(x, y, width, height);
             
-            String regionPath = imagePath.replace(".png", "_region.png");
-            ImageIO.write(regionImage, "png", new File(regionPath));
-            
-            String extractedText = runTesseractOCR(regionPath, 0);
-            
-            try {
-                new File(regionPath).delete();
-            } catch (Exception e) {
-            }
-            
-            return extractedText;
+            return runTesseractOCR(regionImage, regionPath, 0, "text_region");
             
         } catch (Exception e) {
             System.err.println("Error extracting text from region: " + e.getMessage());
@@ -433,10 +927,16 @@ public class BotUtils {
     }
 
     public static boolean extractTextPanel(String sourcePath, String outputPath, boolean enhanceContrast, int instanceIndex) {
+        try (ScreenFrame frame = ScreenFrame.fromFile(sourcePath, instanceIndex)) {
+            return extractTextPanel(frame, outputPath, enhanceContrast);
+        }
+    }
+
+    public static boolean extractTextPanel(ScreenFrame frame, String outputPath, boolean enhanceContrast) {
         try {
-            BufferedImage sourceImage = ImageIO.read(new File(sourcePath));
+            BufferedImage sourceImage = frame.image();
             if (sourceImage == null) {
-                System.err.println("❌ Could not load source image: " + sourcePath);
+                System.err.println("❌ Could not load source image: " + frame.describe());
                 return false;
             }
             
@@ -478,8 +978,14 @@ public class BotUtils {
     }
 
     public static boolean extractSmallTimeArea(String sourcePath, String outputPath, int x, int y, int width, int height) {
+        try (ScreenFrame frame = ScreenFrame.fromFile(sourcePath)) {
+            return extractSmallTimeArea(frame, outputPath, x, y, width, height);
+        }
+    }
+
+    public static boolean extractSmallTimeArea(ScreenFrame frame, String outputPath, int x, int y, int width, int height) {
         try {
-            BufferedImage sourceImage = ImageIO.read(new File(sourcePath));
+            BufferedImage sourceImage = frame.image();
             if (sourceImage == null) {
                 return false;
             }
@@ -503,31 +1009,7 @@ public class BotUtils {
         }
     }
 
-    private static String runTesseractWithConfig(String tesseractPath, String imagePath, String[] config) throws Exception {
-        ProcessBuilder pb = new ProcessBuilder();
-        pb.command().add(tesseractPath);
-        pb.command().add(imagePath);
-        pb.command().add("stdout");
-        
-        for (String param : config) {
-            pb.command().add(param);
-        }
-        
-        Process process = pb.start();
-        
-        StringBuilder output = new StringBuilder();
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                output.append(line).append("\n");
-            }
-        }
-        
-        int exitCode = process.waitFor();
-        return output.toString().trim();
-    }
-    
-    private static double scoreTimeExtractionResult(String result) {
+    static double scoreTimeExtractionResult(String result) {
         if (result == null || result.trim().isEmpty()) {
             return 0;
         }
@@ -562,33 +1044,6 @@ public class BotUtils {
         return 0;
     }
     
-    private static String findTesseractPath() {
-        String[] possiblePaths = {
-            "C:\\Program Files\\Tesseract-OCR\\tesseract.exe",
-            "C:\\Program Files (x86)\\Tesseract-OCR\\tesseract.exe", 
-            "tesseract",
-            "tesseract.exe"
-        };
-        
-        for (String path : possiblePaths) {
-            File tesseractFile = new File(path);
-            if (tesseractFile.exists() && tesseractFile.canExecute()) {
-                return path;
-            }
-        }
-        
-        try {
-            Process process = Runtime.getRuntime().exec("tesseract --version");
-            process.waitFor();
-            if (process.exitValue() == 0) {
-                return "tesseract";
-            }
-        } catch (Exception e) {
-        }
-        
-        return null;
-    }
-
     private static BufferedImage enhanceForOCR(BufferedImage original) {
         try {
             int width = original.getWidth();
@@ -596,21 +1051,21 @@ public class BotUtils {
             
             BufferedImage enhanced = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
             
-            for (int y = 0; y < height; y++) {
-                for (int x = 0; x < width; x++) {
-                    Color pixel = new Color(original.getRGB(x, y));
-                    
-                    int gray = (int) (pixel.getRed() * 0.3 + pixel.getGreen() * 0.59 + pixel.getBlue() * 0.11);
-                    
-                    if (gray > 128) {
-                        gray = Math.min(255, gray + 50);
-                    } else {
-                        gray = Math.max(0, gray - 50);
-                    }
-                    
-                    Color newColor = new Color(gray, gray, gray);
-                    enhanced.setRGB(x, y, newColor.getRGB());
+            // Read the source straight into the output raster and convert in place
+            int[] pixels = ((DataBufferInt) enhanced.getRaster().getDataBuffer()).getData();
+            original.getRGB(0, 0, width, height, pixels, 0, width);
+            
+            for (int i = 0; i < pixels.length; i++) {
+                int rgb = pixels[i];
+                int gray = (int) (((rgb >> 16) & 0xFF) * 0.3 + ((rgb >> 8) & 0xFF) * 0.59 + (rgb & 0xFF) * 0.11);
+                
+                if (gray > 128) {
+                    gray = Math.min(255, gray + 50);
+                } else {
+                    gray = Math.max(0, gray - 50);
                 }
+                
+                pixels[i] = (gray << 16) | (gray << 8) | gray;
             }
             
             return enhanced;
@@ -633,15 +1088,12 @@ public class BotUtils {
             g2d.drawImage(original, 0, 0, width * scaleFactor, height * scaleFactor, null);
             g2d.dispose();
             
-            for (int y = 0; y < scaled.getHeight(); y++) {
-                for (int x = 0; x < scaled.getWidth(); x++) {
-                    Color pixel = new Color(scaled.getRGB(x, y));
-                    int gray = (int) (pixel.getRed() * 0.3 + pixel.getGreen() * 0.59 + pixel.getBlue() * 0.11);
-                    
-                    int newGray = (gray > 100) ? 255 : 0;
-                    Color newColor = new Color(newGray, newGray, newGray);
-                    scaled.setRGB(x, y, newColor.getRGB());
-                }
+            int[] pixels = ((DataBufferInt) scaled.getRaster().getDataBuffer()).getData();
+            for (int i = 0; i < pixels.length; i++) {
+                int rgb = pixels[i];
+                int gray = (int) (((rgb >> 16) & 0xFF) * 0.3 + ((rgb >> 8) & 0xFF) * 0.59 + (rgb & 0xFF) * 0.11);
+                
+                pixels[i] = (gray > 100) ? 0xFFFFFF : 0;
             }
             
             return scaled;
@@ -0,0 +1,78 @@
+package newgame;
+
+import java.util.Arrays;
+import javax.swing.SwingUtilities;
+
+/**
+ * Measures how long events wait on the Swing EDT. A probe is posted every
+ * PROBE_INTERVAL_MS, and the delay until it runs is the latency any UI update
+ * would have seen at that moment. A summary is logged every REPORT_INTERVAL_MS.
+ */
+public class EdtLatencyMonitor {
+    private static final long PROBE_INTERVAL_MS = 200;
+    private static final long REPORT_INTERVAL_MS = 60_000;
+    private static final int WINDOW = (int) (REPORT_INTERVAL_MS / PROBE_INTERVAL_MS);
+    private static final double SLOW_MS = 100;
+
+    // Probe latencies in microseconds over the last report interval
+    private static final long[] samples = new long[WINDOW];
+    private static int sampleCount;
+    private static int nextSample;
+    private static long lastReport;
+    private static boolean started;
+    // Only one probe in flight, so a stalled EDT does not pile them up
+    private static volatile boolean probePending;
+
+    public static synchronized void start() {
+        if (started) {
+            return;
+        }
+        started = true;
+        lastReport = System.currentTimeMillis();
+        ModuleChainExecutor.scheduleAtFixedRate(EdtLatencyMonitor::probe, PROBE_INTERVAL_MS);
+    }
+
+    private static void probe() {
+        if (probePending) {
+            return;
+        }
+        probePending = true;
+        long posted = System.nanoTime();
+        SwingUtilities.invokeLater(() -> {
+            probePending = false;
+            record((System.nanoTime() - posted) / 1000);
+        });
+    }
+
+    private static synchronized void record(long latencyMicros) {
+        samples[nextSample] = latencyMicros;
+        nextSample = (nextSample + 1) % WINDOW;
+        sampleCount = Math.min(sampleCount + 1, WINDOW);
+
+        long now = System.currentTimeMillis();
+        if (now - lastReport >= REPORT_INTERVAL_MS) {
+            lastReport = now;
+            String summary = describe();
+            if (percentileMs(0.99) >= SLOW_MS) {
+                System.out.println("⚠️ [EDT] " + summary);
+            } else {
+                System.out.println("📈 [EDT] " + summary);
+            }
+        }
+    }
+
+    public static synchronized double percentileMs(double fraction) {
+        if (sampleCount == 0) {
+            return 0;
+        }
+        long[] sorted = Arrays.copyOf(samples, sampleCount);
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(fraction * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1000.0;
+    }
+
+    public static synchronized String describe() {
+        return String.format("EDT latency over %d probes: p50 %.1fms, p99 %.1fms, max %.1fms",
+            sampleCount, percentileMs(0.5), percentileMs(0.99), percentileMs(1.0));
+    }
+}
@@ -47,6 +47,7 @@ public class InstanceQueueManager {
     
     public InstanceQueueManager(SystemSettings settings) {
         this.systemSettings = settings;
+        WakePlanner.setSystemSettings(settings);
     }
     
     public void updateSettings(SystemSettings newSettings) {
@@ -4,12 +4,17 @@ import com.formdev.flatlaf.FlatDarkLaf;
 import javax.swing.*;
 import javax.swing.Timer;
 import javax.swing.table.*;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.Document;
+import javax.swing.text.Element;
 import java.awt.*;
 import java.awt.event.*;
 import java.io.*;
 import java.util.*;
 import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import com.google.gson.*;
 import com.google.gson.reflect.TypeToken;
 import java.time.LocalDateTime;
@@ -26,11 +31,15 @@ public class Main extends JFrame {
     
     private JTextArea consoleArea;
     private JScrollPane consoleScrollPane;
+    private static final int CONSOLE_MAX_LINES = 500;
+    private final ConcurrentLinkedQueue<String> pendingConsoleMessages = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean consoleFlushScheduled = new AtomicBoolean();
     private static Main instance;
     private static Main mainInstance;
 
     // Simplified system management
     private Map<Integer, String> hibernationStates = new HashMap<>();
+    private SystemSettings systemSettings = new SystemSettings();
     
     // Simplified selection system
     private Set<Integer> selectedInstances = new HashSet<>();
@@ -48,9 +57,12 @@ public class Main extends JFrame {
         configureWindow();
         initializeUI();
         loadSettings();
+        loadSystemSettings();
         refreshInstances();
         startCleanStatusUpdater();
+        EdtLatencyMonitor.start();
         addModuleManagementMenu(); // Add the modules menu
+        addSystemMenu();
         addConsoleMessage("🚀 Benson v1.0.3 started - Ready to automate your game!");
     }
 
@@ -777,6 +789,41 @@ public class Main extends JFrame {
         menuBar.add(modulesMenu);
     }
 
+    /**
+     * Add the system menu: fleet-wide settings and the wake planning report
+     */
+    private void addSystemMenu() {
+        JMenu systemMenu = new JMenu("System");
+        
+        JMenuItem systemSettingsItem = new JMenuItem("System Settings");
+        systemSettingsItem.addActionListener(e -> showSystemSettings());
+        
+        JMenuItem wakeReport = new JMenuItem("Wake Planning Report");
+        wakeReport.addActionListener(e -> {
+            addConsoleMessage("📅 " + WakePlanner.describe());
+            addConsoleMessage("⏰ " + WakeScheduler.describe());
+        });
+        
+        JMenuItem matchReport = new JMenuItem("Template Match Report");
+        matchReport.addActionListener(e -> addConsoleMessage("🎯 " + TemplateMatcher.describeLocalityStats()));
+        
+        systemMenu.add(systemSettingsItem);
+        systemMenu.add(wakeReport);
+        systemMenu.add(matchReport);
+        
+        getJMenuBar().add(systemMenu);
+    }
+    
+    private void showSystemSettings() {
+        SystemSettingsDialog dialog = new SystemSettingsDialog(this, systemSettings);
+        dialog.setVisible(true);
+        if (dialog.wasModified()) {
+            WakePlanner.setSystemSettings(systemSettings);
+            saveSystemSettings();
+            addConsoleMessage("⚙️ System settings updated: max " + systemSettings.maxConcurrentInstances + " concurrent instances");
+        }
+    }
+
     /**
      * Show global module settings dialog
      */
@@ -1030,24 +1077,45 @@ public class Main extends JFrame {
         return panel;
     }
 
+    /**
+     * Queue a console line. Lines logged close together are appended to the
+     * console in one EDT event instead of one event each.
+     */
     public void addConsoleMessage(String message) {
-        SwingUtilities.invokeLater(() -> {
-            String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("HH:mm:ss"));
-            String formattedMessage = "[" + timestamp + "] " + message + "\n";
-            
-            consoleArea.append(formattedMessage);
-            consoleArea.setCaretPosition(consoleArea.getDocument().getLength());
-            
-            String[] lines = consoleArea.getText().split("\n");
-            if (lines.length > 500) {
-                StringBuilder newText = new StringBuilder();
-                for (int i = lines.length - 500; i < lines.length; i++) {
-                    newText.append(lines[i]).append("\n");
-                }
-                consoleArea.setText(newText.toString());
-                consoleArea.setCaretPosition(consoleArea.getDocument().getLength());
+        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("HH:mm:ss"));
+        pendingConsoleMessages.add("[" + timestamp + "] " + message + "\n");
+        
+        if (consoleFlushScheduled.compareAndSet(false, true)) {
+            SwingUtilities.invokeLater(this::flushConsoleMessages);
+        }
+    }
+
+    private void flushConsoleMessages() {
+        consoleFlushScheduled.set(false);
+        
+        StringBuilder batch = new StringBuilder();
+        String line;
+        while ((line = pendingConsoleMessages.poll()) != null) {
+            batch.append(line);
+        }
+        if (batch.length() == 0) {
+            return;
+        }
+        
+        consoleArea.append(batch.toString());
+        
+        // Trim to the last CONSOLE_MAX_LINES lines using the document's line elements
+        Document document = consoleArea.getDocument();
+        Element root = document.getDefaultRootElement();
+        int excessLines = root.getElementCount() - 1 - CONSOLE_MAX_LINES;
+        if (excessLines > 0) {
+            try {
+                document.remove(0, root.getElement(excessLines - 1).getEndOffset());
+            } catch (BadLocationException e) {
+                System.err.println("❌ Error trimming console: " + e.getMessage());
             }
-        });
+        }
+        consoleArea.setCaretPosition(document.getLength());
     }
 
     public static void addToConsole(String message) {
@@ -1467,6 +1535,35 @@ public class Main extends JFrame {
         }
     }
 
+    private void saveSystemSettings() {
+        try (FileWriter writer = new FileWriter("system_settings.json")) {
+            new GsonBuilder().setPrettyPrinting().create().toJson(systemSettings, writer);
+            System.out.println("💾 System settings saved to system_settings.json");
+        } catch (IOException ex) {
+            showError("Save Failed", "Couldn't save system settings: " + ex.getMessage());
+        }
+    }
+
+    /**
+     * Load the fleet-wide settings and hand them to the wake planner, which
+     * staggers boots to their concurrency limit
+     */
+    private void loadSystemSettings() {
+        File file = new File("system_settings.json");
+        if (file.exists()) {
+            try (FileReader reader = new FileReader(file)) {
+                SystemSettings loaded = new Gson().fromJson(reader, SystemSettings.class);
+                if (loaded != null) {
+                    systemSettings = loaded;
+                    System.out.println("💾 System settings loaded: " + systemSettings);
+                }
+            } catch (IOException | JsonParseException ex) {
+                System.err.println("❌ Failed to load system settings: " + ex.getMessage());
+            }
+        }
+        WakePlanner.setSystemSettings(systemSettings);
+    }
+
     private void showError(String title, String message) {
         JOptionPane.showMessageDialog(this, message, title, JOptionPane.ERROR_MESSAGE);
     }
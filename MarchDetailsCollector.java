@@ -12,6 +12,13 @@ public class MarchDetailsCollector {
     
     private final MemuInstance instance;
     
+    // Details page timers, read together in one OCR pass
+    private static final Map<String, Rectangle> DETAILS_TIME_REGIONS = new LinkedHashMap<>();
+    static {
+        DETAILS_TIME_REGIONS.put("gather_time", new Rectangle(355, 145, 80, 20));        // "Gathered in" value
+        DETAILS_TIME_REGIONS.put("details_march_time", new Rectangle(355, 170, 80, 20)); // march time row below it
+    }
+    
     public MarchDetailsCollector(MemuInstance instance) {
         this.instance = instance;
     }
@@ -68,20 +75,21 @@ public class MarchDetailsCollector {
         try {
             System.out.println("🔧 Setting up march view for instance " + instance.index + " (FIXED)");
             
-            // Take screenshot to see current state
-            String currentScreenPath = "screenshots/current_state_" + instance.index + ".png";
-            if (!BotUtils.takeScreenshot(instance.index, currentScreenPath)) {
-                System.err.println("❌ Failed to take current state screenshot");
-                return false;
+            // Take screenshot to see current state and check if we need to open left panel
+            Point openLeftButton;
+            byte[] beforeOpen;
+            try (ScreenFrame frame = ScreenFrame.capture(instance.index)) {
+                if (frame == null) {
+                    System.err.println("❌ Failed to take current state screenshot");
+                    return false;
+                }
+                openLeftButton = BotUtils.findImageOnScreen(frame, "open_left.png", 0.6);
+                beforeOpen = openLeftButton != null ? BotUtils.screenSignature(frame) : null;
             }
-            
-            // Check if we need to open left panel
-            Point openLeftButton = BotUtils.findImageOnScreen(currentScreenPath, "open_left.png", 0.6);
             if (openLeftButton != null) {
                 System.out.println("📍 Found open_left button, clicking to open panel...");
-                if (BotUtils.clickMenu(instance.index, openLeftButton)) {
+                if (BotUtils.clickAndWait(instance.index, openLeftButton, 1000, beforeOpen)) {
                     System.out.println("✅ Opened left panel");
-                    Thread.sleep(1000);
                 } else {
                     System.err.println("❌ Failed to click open_left button");
                     return false;
@@ -91,15 +99,18 @@ public class MarchDetailsCollector {
             }
             
             // Look for wilderness button to enter march mode
-            String afterOpenPath = "screenshots/after_open_left_" + instance.index + ".png";
-            BotUtils.takeScreenshot(instance.index, afterOpenPath);
-            
-            Point wildernessButton = BotUtils.findImageOnScreen(afterOpenPath, "wilderness_button.png", 0.6);
+            Point wildernessButton = null;
+            byte[] beforeWilderness = null;
+            try (ScreenFrame frame = ScreenFrame.capture(instance.index)) {
+                if (frame != null) {
+                    wildernessButton = BotUtils.findImageOnScreen(frame, "wilderness_button.png", 0.6);
+                    beforeWilderness = wildernessButton != null ? BotUtils.screenSignature(frame) : null;
+                }
+            }
             if (wildernessButton != null) {
                 System.out.println("🌍 Found wilderness button, entering march mode...");
-                if (BotUtils.clickMenu(instance.index, wildernessButton)) {
+                if (BotUtils.clickAndWait(instance.index, wildernessButton, 2000, beforeWilderness)) {
                     System.out.println("✅ Entered wilderness/march mode");
-                    Thread.sleep(2000);
                     return true;
                 } else {
                     System.err.println("❌ Failed to click wilderness button");
@@ -139,8 +150,15 @@ public class MarchDetailsCollector {
                 return false;
             }
             
-            // Extract gathering time efficiently
-            String gatheringTime = extractGatheringTimeSimplified(marchInfo.queueNumber);
+            // Gathering and march time come from the same details frame
+            Map<String, String> detailTimes = extractDetailTimesSimplified(marchInfo.queueNumber);
+            String marchTime = detailTimes.get("details_march_time");
+            if (marchTime != null && !marchTime.equals(marchInfo.estimatedDeployDuration)) {
+                System.out.println("⏱️ Details page march time " + marchTime + " replaces deploy estimate " +
+                                   marchInfo.estimatedDeployDuration + " for Queue " + marchInfo.queueNumber);
+                marchInfo.estimatedDeployDuration = marchTime;
+            }
+            String gatheringTime = detailTimes.get("gather_time");
             if (gatheringTime != null) {
                 System.out.println("✅ Extracted gathering time: " + gatheringTime + " for Queue " + marchInfo.queueNumber);
                 
@@ -173,72 +191,67 @@ public class MarchDetailsCollector {
     }
     
     /**
-     * PRECISE: Extract gathering time using exact coordinates from the image analysis
+     * PRECISE: Extract gathering and march time using exact coordinates from
+     * the image analysis. The gathering time falls back to a default.
      */
-    private String extractGatheringTimeSimplified(int queueNumber) {
+    private Map<String, String> extractDetailTimesSimplified(int queueNumber) {
+        Map<String, String> times = new HashMap<>();
         try {
-            System.out.println("📊 [PRECISE] Extracting gathering time for Queue " + queueNumber + " using exact coordinates...");
+            System.out.println("📊 [PRECISE] Extracting detail times for Queue " + queueNumber + " using exact coordinates...");
             
-            String screenPath = "screenshots/details_page_" + instance.index + ".png";
-            if (!BotUtils.takeScreenshot(instance.index, screenPath)) {
-                System.err.println("❌ Failed to take details page screenshot");
-                return "02:00:00";
+            try (ScreenFrame frame = ScreenFrame.capture(instance.index)) {
+                if (frame == null) {
+                    System.err.println("❌ Failed to take details page screenshot");
+                } else {
+                    times.putAll(extractDetailTimes(frame));
+                }
             }
-            
-            System.out.println("📸 [PRECISE] Details page screenshot saved: " + screenPath);
-            
-            // PRECISE: Extract the exact "Gathered in" time value
-            // Based on image analysis: "02:59:12" needs to be moved up and left from previous coordinates
-            int x = 355;      // X position moved LEFT from 367
-            int y = 145;      // Y position moved UP from 155  
-            int width = 80;   // Width to capture "02:59:12"
-            int height = 20;  // Height for single line text
-            
-            System.out.println("🎯 [PRECISE] Using exact coordinates: x=" + x + ", y=" + y + ", w=" + width + ", h=" + height);
-            
-            String timeRegionPath = "screenshots/precise_gather_time_" + instance.index + ".png";
-            if (OCRUtils.extractImageRegion(screenPath, timeRegionPath, x, y, width, height)) {
-                // Use time-specific OCR for best results with HH:MM:SS format
-                String timeText = OCRUtils.performTimeOCR(timeRegionPath, instance.index);
-                if (timeText != null && !timeText.trim().isEmpty()) {
-                    System.out.println("📋 [PRECISE] OCR result: '" + timeText + "'");
+        } catch (Exception e) {
+            System.err.println("❌ Error in precise detail time extraction: " + e.getMessage());
+        }
+        
+        if (times.get("gather_time") == null) {
+            System.err.println("⚠️ [PRECISE] Could not extract gathering time, using default");
+            times.put("gather_time", "02:00:00");
+        }
+        return times;
+    }
+    
+    /**
+     * Read the "Gathered in" time and the march time from a captured details
+     * page with one OCR pass. A region maps to null if no valid time was read.
+     */
+    public Map<String, String> extractDetailTimes(ScreenFrame frame) {
+        String timeRegionPath = "screenshots/precise_detail_times_" + instance.index + ".png";
+        Map<String, String> times = OCRUtils.performBatchTimeOCR(frame, DETAILS_TIME_REGIONS, timeRegionPath, instance.index);
+        System.out.println("📋 [PRECISE] Detail times: " + times);
+        if (times.get("gather_time") == null) {
+            times.put("gather_time", extractGatheringTimeFromFullPage(frame));
+        }
+        return times;
+    }
+    
+    private String extractGatheringTimeFromFullPage(ScreenFrame frame) {
+        // FALLBACK: Full page OCR if precise extraction fails
+        System.out.println("🔍 [PRECISE] Precise extraction failed, trying full page OCR as fallback...");
+        String fullPageOCR = OCRUtils.performEnhancedOCR(frame, "screenshots/details_page_" + instance.index + ".png");
+        if (fullPageOCR != null) {
+            String[] lines = fullPageOCR.split("\n");
+            for (String line : lines) {
+                // Look for "Gathered in" or "Gatheredin" pattern
+                if (line.toLowerCase().contains("gatheredin") || line.toLowerCase().contains("gathered in")) {
+                    System.out.println("🎯 [PRECISE] Found gathering line: '" + line + "'");
                     
-                    String parsedTime = TimeUtils.parseTimeFromText(timeText);
+                    String parsedTime = TimeUtils.parseTimeFromText(line);
                     if (parsedTime != null && TimeUtils.isValidMarchTime(parsedTime)) {
-                        System.out.println("✅ [PRECISE] SUCCESS! Found gathering time: " + parsedTime);
+                        System.out.println("✅ [PRECISE] SUCCESS! Extracted from full page: " + parsedTime);
                         return parsedTime;
-                    } else {
-                        System.out.println("⚠️ [PRECISE] Could not parse valid time from: '" + timeText + "'");
                     }
                 }
             }
-            
-            // FALLBACK: Full page OCR if precise extraction fails
-            System.out.println("🔍 [PRECISE] Precise extraction failed, trying full page OCR as fallback...");
-            String fullPageOCR = OCRUtils.performEnhancedOCR(screenPath, instance.index);
-            if (fullPageOCR != null) {
-                String[] lines = fullPageOCR.split("\n");
-                for (String line : lines) {
-                    // Look for "Gathered in" or "Gatheredin" pattern
-                    if (line.toLowerCase().contains("gatheredin") || line.toLowerCase().contains("gathered in")) {
-                        System.out.println("🎯 [PRECISE] Found gathering line: '" + line + "'");
-                        
-                        String parsedTime = TimeUtils.parseTimeFromText(line);
-                        if (parsedTime != null && TimeUtils.isValidMarchTime(parsedTime)) {
-                            System.out.println("✅ [PRECISE] SUCCESS! Extracted from full page: " + parsedTime);
-                            return parsedTime;
-                        }
-                    }
-                }
-            }
-            
-            System.err.println("⚠️ [PRECISE] Could not extract gathering time, using default");
-            return "02:00:00";
-            
-        } catch (Exception e) {
-            System.err.println("❌ Error in precise gathering time extraction: " + e.getMessage());
-            return "02:00:00";
         }
+        
+        return null;
     }
     
     /**
@@ -253,9 +266,8 @@ public class MarchDetailsCollector {
             
             if (queuePosition != null) {
                 System.out.println("🎯 Clicking Queue " + queueNumber + " at FIXED position: " + queuePosition);
-                if (BotUtils.clickMenu(instance.index, queuePosition)) {
+                if (BotUtils.clickAndWait(instance.index, queuePosition, 2000)) {
                     System.out.println("✅ Clicked on Queue " + queueNumber + " at FIXED position " + queuePosition);
-                    Thread.sleep(2000);
                     return true;
                 } else {
                     System.err.println("❌ Failed to click on Queue " + queueNumber);
@@ -296,29 +308,31 @@ public class MarchDetailsCollector {
             for (int attempt = 1; attempt <= 2; attempt++) {
                 System.out.println("🔄 Details button detection attempt " + attempt + "/2");
                 
-                String detailsButtonPath = "screenshots/details_button_fixed" + attempt + "_" + instance.index + ".png";
-                if (!BotUtils.takeScreenshot(instance.index, detailsButtonPath)) {
-                    System.err.println("❌ Failed to take details button screenshot on attempt " + attempt);
-                    continue;
-                }
-                
                 Point detailsPos = null;
+                byte[] beforeDetails = null;
                 
-                for (String imageName : detailsButtonImages) {
-                    for (double confidence : confidences) {
-                        detailsPos = BotUtils.findImageOnScreen(detailsButtonPath, imageName, confidence);
-                        if (detailsPos != null) {
-                            System.out.println("✅ Found " + imageName + " at " + detailsPos + " (confidence: " + confidence + ") on attempt " + attempt);
-                            break;
+                try (ScreenFrame frame = ScreenFrame.capture(instance.index)) {
+                    if (frame == null) {
+                        System.err.println("❌ Failed to take details button screenshot on attempt " + attempt);
+                        continue;
+                    }
+                    
+                    for (String imageName : detailsButtonImages) {
+                        for (double confidence : confidences) {
+                            detailsPos = BotUtils.findImageOnScreen(frame, imageName, confidence);
+                            if (detailsPos != null) {
+                                System.out.println("✅ Found " + imageName + " at " + detailsPos + " (confidence: " + confidence + ") on attempt " + attempt);
+                                break;
+                            }
                         }
+                        if (detailsPos != null) break;
                     }
-                    if (detailsPos != null) break;
+                    beforeDetails = detailsPos != null ? BotUtils.screenSignature(frame) : null;
                 }
                 
                 if (detailsPos != null) {
-                    if (BotUtils.clickMenu(instance.index, detailsPos)) {
+                    if (BotUtils.clickAndWait(instance.index, detailsPos, 2000, beforeDetails)) {
                         System.out.println("✅ Clicked details button successfully (FIXED)");
-                        Thread.sleep(2000);
                         return true;
                     }
                 } else {
@@ -336,9 +350,8 @@ public class MarchDetailsCollector {
             };
             
             for (Point fallbackPos : fallbackPositions) {
-                if (BotUtils.clickMenu(instance.index, fallbackPos)) {
+                if (BotUtils.clickAndWait(instance.index, fallbackPos, 2000)) {
                     System.out.println("✅ Clicked details button with fallback position " + fallbackPos + " (FIXED)");
-                    Thread.sleep(2000);
                     return true;
                 }
             }
@@ -355,24 +368,27 @@ public class MarchDetailsCollector {
         try {
             System.out.println("❌ Closing details page (FIXED)...");
             
-            String closeDetailsPath = "screenshots/close_details_" + instance.index + ".png";
-            if (!BotUtils.takeScreenshot(instance.index, closeDetailsPath)) {
-                return;
-            }
-            
-            Point closePos = BotUtils.findImageOnScreen(closeDetailsPath, "close_gather.png", 0.7);
-            
-            if (closePos == null) {
-                closePos = BotUtils.findImageOnScreen(closeDetailsPath, "close_x.png", 0.6);
+            Point closePos;
+            byte[] beforeClose;
+            try (ScreenFrame frame = ScreenFrame.capture(instance.index)) {
+                if (frame == null) {
+                    return;
+                }
+                
+                closePos = BotUtils.findImageOnScreen(frame, "close_gather.png", 0.7);
+                
+                if (closePos == null) {
+                    closePos = BotUtils.findImageOnScreen(frame, "close_x.png", 0.6);
+                }
+                beforeClose = BotUtils.screenSignature(frame);
             }
             
             if (closePos == null) {
                 closePos = new Point(415, 59);
             }
             
-            if (BotUtils.clickMenu(instance.index, closePos)) {
+            if (BotUtils.clickAndWait(instance.index, closePos, 1000, beforeClose)) {
                 System.out.println("✅ Closed details page at " + closePos + " (FIXED)");
-                Thread.sleep(1000);
             }
             
         } catch (Exception e) {
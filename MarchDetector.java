@@ -1,12 +1,10 @@
 package newgame;
 
 import java.awt.image.BufferedImage;
-import java.io.File;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
-import javax.imageio.ImageIO;
 
 public class MarchDetector {
     
@@ -22,32 +20,53 @@ public class MarchDetector {
         public int queueNumber;
         public MarchStatus status;
         public String rawStatus;
+        public double confidence;
+        // False when the status is a default guess rather than read from the screen
+        public boolean detected = true;
         
         public MarchInfo(int queueNumber, MarchStatus status, String rawStatus) {
+            this(queueNumber, status, rawStatus, 1.0);
+        }
+        
+        public MarchInfo(int queueNumber, MarchStatus status, String rawStatus, double confidence) {
             this.queueNumber = queueNumber;
             this.status = status;
             this.rawStatus = rawStatus;
+            this.confidence = confidence;
+        }
+        
+        static MarchInfo guessed(int queueNumber, MarchStatus status, String rawStatus) {
+            MarchInfo info = new MarchInfo(queueNumber, status, rawStatus);
+            info.detected = false;
+            return info;
         }
         
         @Override
         public String toString() {
-            return "Queue " + queueNumber + ": " + status + " (raw: '" + rawStatus + "')";
+            return "Queue " + queueNumber + ": " + status + " (raw: '" + rawStatus + "', confidence " +
+                   String.format("%.2f", confidence) + ")";
         }
     }
     
     public static List<MarchInfo> readMarchQueues(int instanceIndex) {
-        try {
-            System.out.println("📋 [DEBUG] Reading march queues for instance " + instanceIndex);
-            
-            String fullScreenPath = "screenshots/debug_march_full_" + instanceIndex + ".png";
-            if (!BotUtils.takeScreenshot(instanceIndex, fullScreenPath)) {
+        System.out.println("📋 [DEBUG] Reading march queues for instance " + instanceIndex);
+        
+        try (ScreenFrame frame = ScreenFrame.capture(instanceIndex)) {
+            if (frame == null) {
                 System.err.println("❌ Failed to take march screenshot");
                 return new ArrayList<>();
             }
-            
-            System.out.println("📸 [DEBUG] Full march screenshot: " + fullScreenPath + " (size: " + new File(fullScreenPath).length() + " bytes)");
-            
-            BufferedImage fullImage = ImageIO.read(new File(fullScreenPath));
+            return readMarchQueues(frame);
+        }
+    }
+    
+    /**
+     * Read march queues from an already captured frame
+     */
+    public static List<MarchInfo> readMarchQueues(ScreenFrame frame) {
+        int instanceIndex = frame.getInstanceIndex();
+        try {
+            BufferedImage fullImage = frame.image();
             if (fullImage == null) {
                 System.err.println("❌ Could not load march screenshot");
                 return new ArrayList<>();
@@ -55,21 +74,33 @@ public class MarchDetector {
             
             System.out.println("📐 [DEBUG] Full screen dimensions: " + fullImage.getWidth() + "x" + fullImage.getHeight());
             
+            // Common path: classify each row from its pixels, no OCR needed
+            List<MarchInfo> classified = MarchQueueClassifier.classify(fullImage);
+            if (classified != null) {
+                System.out.println("📊 [DEBUG] Classified " + classified.size() + " queues without OCR:");
+                for (MarchInfo queue : classified) {
+                    System.out.println("  " + queue.toString());
+                }
+                return classified;
+            }
+            
             // FIXED: Extract wider text panel to capture more "idle" text
             String textPanelPath = "screenshots/debug_march_text_panel_" + instanceIndex + ".png";
-            if (!extractMarchTextPanelFixed(fullScreenPath, textPanelPath)) {
+            BufferedImage textPanel = extractMarchTextPanelFixed(frame);
+            if (textPanel == null) {
                 System.err.println("❌ Failed to extract march text panel");
                 return new ArrayList<>();
             }
             
-            // Use enhanced OCR for march queue detection
-            String ocrText = OCRUtils.performMarchQueueOCR(textPanelPath, instanceIndex);
+            // Use enhanced OCR for march queue detection; an unchanged panel is served from the OCR cache
+            String ocrText = OCRUtils.performMarchQueueOCR(textPanel, textPanelPath, instanceIndex);
             if (ocrText == null || ocrText.trim().isEmpty()) {
                 System.err.println("❌ OCR failed or returned empty text");
                 return new ArrayList<>();
             }
             
             List<MarchInfo> queues = parseMarchQueuesFixed(ocrText);
+            MarchQueueClassifier.learn(fullImage, queues);
             
             System.out.println("📊 [DEBUG] Parsed " + queues.size() + " queues:");
             for (MarchInfo queue : queues) {
@@ -87,12 +118,12 @@ public class MarchDetector {
     /**
      * FIXED: Extract wider march text panel to better capture "idle" status
      */
-    private static boolean extractMarchTextPanelFixed(String sourcePath, String outputPath) {
+    private static BufferedImage extractMarchTextPanelFixed(ScreenFrame frame) {
         try {
-            BufferedImage sourceImage = ImageIO.read(new File(sourcePath));
+            BufferedImage sourceImage = frame.image();
             if (sourceImage == null) {
-                System.err.println("❌ Could not load march screenshot: " + sourcePath);
-                return false;
+                System.err.println("❌ Could not load march screenshot: " + frame.describe());
+                return null;
             }
             
             // FIXED: Wider extraction to capture full "idle" words
@@ -113,33 +144,18 @@ public class MarchDetector {
             
             if (panelWidth <= 0 || panelHeight <= 0) {
                 System.err.println("❌ Invalid panel dimensions after bounds check");
-                return false;
+                return null;
             }
             
             // Extract the wider text region
             BufferedImage textPanel = sourceImage.getSubimage(panelX, panelY, panelWidth, panelHeight);
             
             // Use shared OCRUtils for image enhancement
-            textPanel = OCRUtils.enhanceImageForOCR(textPanel);
-            
-            // Save the extracted panel
-            File outputFile = new File(outputPath);
-            File parentDir = outputFile.getParentFile();
-            if (parentDir != null && !parentDir.exists()) {
-                parentDir.mkdirs();
-            }
-            
-            if (ImageIO.write(textPanel, "PNG", outputFile)) {
-                System.out.println("✅ [DEBUG] FIXED wider text panel extracted: " + outputPath + " (size: " + outputFile.length() + " bytes)");
-                return true;
-            } else {
-                System.err.println("❌ Failed to save text panel");
-                return false;
-            }
+            return OCRUtils.enhanceImageForOCR(textPanel);
             
         } catch (Exception e) {
             System.err.println("❌ Error extracting march text panel: " + e.getMessage());
-            return false;
+            return null;
         }
     }
     
@@ -175,6 +191,11 @@ public class MarchDetector {
                     if (status != null) {
                         System.out.println("  ✅ [DEBUG] Found " + status + " for Queue " + queueNumber);
                         queues.add(new MarchInfo(queueNumber, status, getStatusContext(lines, i)));
+                    } else {
+                        // If no status found, use an intelligent default, marked as a guess
+                        MarchStatus guess = (queueNumber <= 2) ? MarchStatus.IDLE : MarchStatus.CANNOT_USE;
+                        System.out.println("  ❔ [DEBUG] No status text for Queue " + queueNumber + ", assuming " + guess);
+                        queues.add(MarchInfo.guessed(queueNumber, guess, getStatusContext(lines, i)));
                     }
                 }
             }
@@ -196,7 +217,8 @@ public class MarchDetector {
     }
     
     /**
-     * FIXED: Find status for a specific queue with enhanced idle detection
+     * FIXED: Find status for a specific queue with enhanced idle detection.
+     * Returns null if no status text was found for it.
      */
     private static MarchStatus findStatusForQueueFixed(String[] lines, int startIndex, int queueNumber) {
         // Check current line and next 3 lines for status
@@ -218,8 +240,7 @@ public class MarchDetector {
             }
         }
         
-        // If no status found, return intelligent default
-        return (queueNumber <= 2) ? MarchStatus.IDLE : MarchStatus.CANNOT_USE;
+        return null;
     }
     
     /**
@@ -432,7 +453,7 @@ public class MarchDetector {
                     System.out.println("📊 [DEBUG] Default Queue " + i + ": CANNOT_USE (not detected in OCR)");
                 }
                 
-                finalQueues.add(new MarchInfo(i, defaultStatus, "default"));
+                finalQueues.add(MarchInfo.guessed(i, defaultStatus, "default"));
             }
         }
         
@@ -0,0 +1,224 @@
+package newgame;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.reflect.TypeToken;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Classifies each march queue row from its pixels instead of OCR. Every row
+ * sits at a fixed slot and each status (idle, gathering, returning, locked...)
+ * has its own colours and icon, so a coarse colour grid of the row is matched
+ * against prototypes learned from earlier OCR reads. Persisted to
+ * march_queue_prototypes.json.
+ */
+public class MarchQueueClassifier {
+    private static final String PROTOTYPE_FILE = "march_queue_prototypes.json";
+    private static final int QUEUE_COUNT = 6;
+    private static final int ROW_X = 85;
+    private static final int ROW_WIDTH = 150;
+    private static final int FIRST_ROW_CENTER_Y = 230;
+    private static final int ROW_SPACING = 55;
+    private static final int ROW_HEIGHT = 44;
+    private static final int GRID_COLS = 15;
+    private static final int GRID_ROWS = 4;
+    private static final double MAX_DISTANCE = 0.15;
+    private static final double DUPLICATE_DISTANCE = 0.01;
+    private static final int MAX_PROTOTYPES_PER_STATUS = 12;
+
+    public static final double MIN_CONFIDENCE = 0.6;
+
+    private static final Gson gson = new GsonBuilder().create();
+    // Replaced as a whole on every change so classification never needs a lock
+    private static volatile List<Prototype> prototypes = Collections.emptyList();
+
+    static {
+        load();
+    }
+
+    static class Prototype {
+        MarchDetector.MarchStatus status;
+        float[] features;
+    }
+
+    /**
+     * Classify all six queue rows. Returns null unless every row is classified
+     * with at least MIN_CONFIDENCE, so the caller can fall back to OCR.
+     */
+    public static List<MarchDetector.MarchInfo> classify(BufferedImage screen) {
+        List<Prototype> known = prototypes;
+        if (known.isEmpty() || screen == null) {
+            return null;
+        }
+
+        List<MarchDetector.MarchInfo> queues = new ArrayList<>(QUEUE_COUNT);
+        for (int queue = 1; queue <= QUEUE_COUNT; queue++) {
+            float[] features = rowFeatures(screen, queue);
+            if (features == null) {
+                return null;
+            }
+
+            MarchDetector.MarchStatus bestStatus = null;
+            double best = Double.MAX_VALUE;
+            double bestOther = Double.MAX_VALUE;
+            for (Prototype prototype : known) {
+                double distance = distance(features, prototype.features);
+                if (distance < best) {
+                    if (bestStatus != null && bestStatus != prototype.status) {
+                        bestOther = best;
+                    }
+                    best = distance;
+                    bestStatus = prototype.status;
+                } else if (prototype.status != bestStatus && distance < bestOther) {
+                    bestOther = distance;
+                }
+            }
+
+            double similarity = Math.max(0, 1 - best / MAX_DISTANCE);
+            // With a single learned status there is nothing to separate from, so trust it less
+            double separation = bestOther == Double.MAX_VALUE ? 0.5
+                : Math.min(1, 2 * (bestOther - best) / Math.max(bestOther, 1e-6));
+            double confidence = similarity * separation;
+
+            if (confidence < MIN_CONFIDENCE) {
+                System.out.println("🔎 [QUEUES] Queue " + queue + " unsure (" + bestStatus + ", " +
+                                   String.format("%.2f", confidence) + "), falling back to OCR");
+                return null;
+            }
+            queues.add(new MarchDetector.MarchInfo(queue, bestStatus, "classifier", confidence));
+        }
+        return queues;
+    }
+
+    /**
+     * Learn row prototypes from statuses that OCR actually read. Defaulted
+     * queues are skipped so guesses never become training data.
+     */
+    public static void learn(BufferedImage screen, List<MarchDetector.MarchInfo> queues) {
+        if (screen == null || queues == null) {
+            return;
+        }
+
+        synchronized (MarchQueueClassifier.class) {
+            List<Prototype> updated = new ArrayList<>(prototypes);
+            int added = 0;
+            for (MarchDetector.MarchInfo queue : queues) {
+                if (!queue.detected || queue.queueNumber < 1 || queue.queueNumber > QUEUE_COUNT) {
+                    continue;
+                }
+                float[] features = rowFeatures(screen, queue.queueNumber);
+                if (features != null && addPrototype(updated, queue.status, features)) {
+                    added++;
+                }
+            }
+            if (added > 0) {
+                prototypes = Collections.unmodifiableList(updated);
+                save();
+                System.out.println("🧠 [QUEUES] Learned " + added + " queue row prototypes (" + updated.size() + " total)");
+            }
+        }
+    }
+
+    public static int getPrototypeCount() {
+        return prototypes.size();
+    }
+
+    private static boolean addPrototype(List<Prototype> list, MarchDetector.MarchStatus status, float[] features) {
+        List<Prototype> sameStatus = new ArrayList<>();
+        for (Prototype prototype : list) {
+            if (prototype.status == status) {
+                if (distance(features, prototype.features) < DUPLICATE_DISTANCE) {
+                    return false;
+                }
+                sameStatus.add(prototype);
+            }
+        }
+        if (sameStatus.size() >= MAX_PROTOTYPES_PER_STATUS) {
+            list.remove(sameStatus.get(0));
+        }
+
+        Prototype prototype = new Prototype();
+        prototype.status = status;
+        prototype.features = features;
+        list.add(prototype);
+        return true;
+    }
+
+    /**
+     * Mean RGB of each cell of a GRID_COLS x GRID_ROWS grid over the queue's
+     * row slot, scaled to 0..1. Returns null if the slot is off screen.
+     */
+    static float[] rowFeatures(BufferedImage screen, int queueNumber) {
+        int top = FIRST_ROW_CENTER_Y + (queueNumber - 1) * ROW_SPACING - ROW_HEIGHT / 2;
+        if (ROW_X + ROW_WIDTH > screen.getWidth() || top < 0 || top + ROW_HEIGHT > screen.getHeight()) {
+            return null;
+        }
+
+        int[] rgb = screen.getRGB(ROW_X, top, ROW_WIDTH, ROW_HEIGHT, null, 0, ROW_WIDTH);
+        float[] features = new float[GRID_COLS * GRID_ROWS * 3];
+        for (int row = 0; row < GRID_ROWS; row++) {
+            int y0 = row * ROW_HEIGHT / GRID_ROWS;
+            int y1 = (row + 1) * ROW_HEIGHT / GRID_ROWS;
+            for (int col = 0; col < GRID_COLS; col++) {
+                int x0 = col * ROW_WIDTH / GRID_COLS;
+                int x1 = (col + 1) * ROW_WIDTH / GRID_COLS;
+                long red = 0;
+                long green = 0;
+                long blue = 0;
+                for (int y = y0; y < y1; y++) {
+                    for (int x = x0; x < x1; x++) {
+                        int pixel = rgb[y * ROW_WIDTH + x];
+                        red += (pixel >> 16) & 0xFF;
+                        green += (pixel >> 8) & 0xFF;
+                        blue += pixel & 0xFF;
+                    }
+                }
+                float count = (y1 - y0) * (x1 - x0) * 255f;
+                int cell = (row * GRID_COLS + col) * 3;
+                features[cell] = red / count;
+                features[cell + 1] = green / count;
+                features[cell + 2] = blue / count;
+            }
+        }
+        return features;
+    }
+
+    private static double distance(float[] a, float[] b) {
+        double sum = 0;
+        for (int i = 0; i < a.length; i++) {
+            sum += Math.abs(a[i] - b[i]);
+        }
+        return sum / a.length;
+    }
+
+    private static synchronized void load() {
+        File file = new File(PROTOTYPE_FILE);
+        if (!file.exists()) {
+            return;
+        }
+        try (FileReader reader = new FileReader(file)) {
+            java.lang.reflect.Type type = new TypeToken<List<Prototype>>(){}.getType();
+            List<Prototype> loaded = gson.fromJson(reader, type);
+            if (loaded != null) {
+                prototypes = Collections.unmodifiableList(loaded);
+                System.out.println("🧠 [QUEUES] Loaded " + loaded.size() + " queue row prototypes");
+            }
+        } catch (Exception e) {
+            System.err.println("⚠️ [QUEUES] Could not load " + PROTOTYPE_FILE + ": " + e.getMessage());
+        }
+    }
+
+    private static synchronized void save() {
+        try (FileWriter writer = new FileWriter(PROTOTYPE_FILE)) {
+            gson.toJson(prototypes, writer);
+        } catch (Exception e) {
+            System.err.println("⚠️ [QUEUES] Could not save " + PROTOTYPE_FILE + ": " + e.getMessage());
+        }
+    }
+}
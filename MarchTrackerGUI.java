@@ -382,15 +382,7 @@ public class MarchTrackerGUI extends JFrame {
     }
 
     private String formatTimeRemaining(long secondsRemaining) {
-        if (secondsRemaining <= 0) {
-            return "00:00:00";
-        }
-        
-        long hours = secondsRemaining / 3600;
-        long minutes = (secondsRemaining % 3600) / 60;
-        long seconds = secondsRemaining % 60;
-        
-        return String.format("%02d:%02d:%02d", hours, minutes, seconds);
+        return TimeUtils.formatTime(Math.max(0, secondsRemaining));
     }
 
     private void refreshMarchData() {
@@ -44,17 +44,19 @@ public class MarchViewNavigator {
      */
     private boolean clickOpenLeftFast() {
         try {
-            String screenPath = "screenshots/open_left_" + instance.index + ".png";
-            if (!BotUtils.takeScreenshot(instance.index, screenPath)) {
-                System.err.println("Failed to take screenshot for opening left panel");
-                return false;
+            Point openLeftButton;
+            byte[] before;
+            try (ScreenFrame frame = ScreenFrame.capture(instance.index)) {
+                if (frame == null) {
+                    System.err.println("Failed to take screenshot for opening left panel");
+                    return false;
+                }
+                openLeftButton = BotUtils.findImageOnScreen(frame, "open_left.png", 0.6);
+                before = openLeftButton != null ? BotUtils.screenSignature(frame) : null;
             }
-            
-            Point openLeftButton = BotUtils.findImageOnScreen(screenPath, "open_left.png", 0.6);
             if (openLeftButton != null) {
-                if (BotUtils.clickMenu(instance.index, openLeftButton)) {
+                if (BotUtils.clickAndWait(instance.index, openLeftButton, 1000, before)) {
                     System.out.println("✅ Clicked open left panel button (FAST)");
-                    Thread.sleep(1000); // SPEED: 2s → 1s
                     return true;
                 }
             }
@@ -75,17 +77,19 @@ public class MarchViewNavigator {
         try {
             System.out.println("🌍 Clicking wilderness button to enter march mode (FAST)...");
             
-            String screenPath = "screenshots/wilderness_" + instance.index + ".png";
-            if (!BotUtils.takeScreenshot(instance.index, screenPath)) {
-                System.err.println("Failed to take screenshot for wilderness button");
-                return false;
+            Point wildernessButton;
+            byte[] before;
+            try (ScreenFrame frame = ScreenFrame.capture(instance.index)) {
+                if (frame == null) {
+                    System.err.println("Failed to take screenshot for wilderness button");
+                    return false;
+                }
+                wildernessButton = BotUtils.findImageOnScreen(frame, "wilderness_button.png", 0.6);
+                before = wildernessButton != null ? BotUtils.screenSignature(frame) : null;
             }
-            
-            Point wildernessButton = BotUtils.findImageOnScreen(screenPath, "wilderness_button.png", 0.6);
             if (wildernessButton != null) {
-                if (BotUtils.clickMenu(instance.index, wildernessButton)) {
+                if (BotUtils.clickAndWait(instance.index, wildernessButton, 2000, before)) {
                     System.out.println("✅ Clicked wilderness button (FAST)");
-                    Thread.sleep(2000); // SPEED: 3s → 2s
                     return true;
                 }
             }
@@ -106,18 +110,20 @@ public class MarchViewNavigator {
         try {
             System.out.println("🌍 Clicking world_icon to enter world view (FAST)...");
             
-            String screenPath = "screenshots/click_world_icon_" + instance.index + ".png";
-            if (!BotUtils.takeScreenshot(instance.index, screenPath)) {
-                System.err.println("Failed to take screenshot for world_icon");
-                return false;
+            Point worldIcon;
+            byte[] before;
+            try (ScreenFrame frame = ScreenFrame.capture(instance.index)) {
+                if (frame == null) {
+                    System.err.println("Failed to take screenshot for world_icon");
+                    return false;
+                }
+                worldIcon = BotUtils.findImageOnScreen(frame, "world_icon.png", 0.6);
+                before = worldIcon != null ? BotUtils.screenSignature(frame) : null;
             }
-            
-            Point worldIcon = BotUtils.findImageOnScreen(screenPath, "world_icon.png", 0.6);
             if (worldIcon != null) {
                 System.out.println("✅ Found world_icon at " + worldIcon);
-                if (BotUtils.clickMenu(instance.index, worldIcon)) {
+                if (BotUtils.clickAndWait(instance.index, worldIcon, 2000, before)) {
                     System.out.println("✅ Clicked world_icon successfully (FAST)");
-                    Thread.sleep(2000); // SPEED: 3s → 2s
                     return true;
                 }
             }
@@ -145,18 +151,19 @@ public class MarchViewNavigator {
             for (int attempt = 1; attempt <= maxAttempts; attempt++) {
                 System.out.println("🔍 Fast verification attempt " + attempt + "/" + maxAttempts + "...");
                 
-                String screenPath = "screenshots/verify_world_view_fast" + attempt + "_" + instance.index + ".png";
-                if (!BotUtils.takeScreenshot(instance.index, screenPath)) {
-                    System.err.println("❌ Failed to take screenshot for world view verification on attempt " + attempt);
-                    if (attempt < maxAttempts) {
-                        Thread.sleep(attemptDelay);
-                        continue;
-                    } else {
-                        return false;
+                Point townIcon;
+                try (ScreenFrame frame = ScreenFrame.capture(instance.index)) {
+                    if (frame == null) {
+                        System.err.println("❌ Failed to take screenshot for world view verification on attempt " + attempt);
+                        if (attempt < maxAttempts) {
+                            Thread.sleep(attemptDelay);
+                            continue;
+                        } else {
+                            return false;
+                        }
                     }
+                    townIcon = BotUtils.findImageOnScreen(frame, "town_icon.png", 0.6);
                 }
-                
-                Point townIcon = BotUtils.findImageOnScreen(screenPath, "town_icon.png", 0.6);
                 if (townIcon != null) {
                     System.out.println("✅ Verified world view - found town_icon at " + townIcon + " on attempt " + attempt + " (FAST)");
                     return true;
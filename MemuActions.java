@@ -13,6 +13,8 @@ public class MemuActions {
     }
 
     public static void stopInstance(JFrame parent, int index, Runnable onSuccess) {
+        AdbSession.close(index);
+        TemplateMatcher.clearLocality(index);
         executeCommand(parent, "stop", index, onSuccess);
     }
 
@@ -0,0 +1,48 @@
+package newgame;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Shared scheduler that advances module chains off the Swing EDT. Chain
+ * bookkeeping, task construction and settings parsing all run here, and the
+ * UI only sees the console messages and status snapshots they publish.
+ */
+public class ModuleChainExecutor {
+    private static final int THREADS = 2;
+
+    private static final AtomicInteger threadCount = new AtomicInteger();
+    private static final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(THREADS, runnable -> {
+        Thread thread = new Thread(runnable, "module-chain-" + threadCount.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public static void execute(Runnable task) {
+        schedule(task, 0);
+    }
+
+    /**
+     * Run the task once after delayMillis. Exceptions are logged rather than
+     * silently swallowed by the executor.
+     */
+    public static ScheduledFuture<?> schedule(Runnable task, long delayMillis) {
+        return scheduler.schedule(() -> runLogged(task), Math.max(0, delayMillis), TimeUnit.MILLISECONDS);
+    }
+
+    public static ScheduledFuture<?> scheduleAtFixedRate(Runnable task, long periodMillis) {
+        return scheduler.scheduleAtFixedRate(() -> runLogged(task), periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private static void runLogged(Runnable task) {
+        try {
+            task.run();
+        } catch (Exception e) {
+            System.err.println("❌ [CHAIN] Module chain step failed: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+}
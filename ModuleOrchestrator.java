@@ -1,6 +1,5 @@
 package newgame;
 
-import javax.swing.Timer;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -106,9 +105,9 @@ public class ModuleOrchestrator {
     private static class ModuleChain {
         private final MemuInstance instance;
         private final List<String> moduleQueue;
-        private int currentModuleIndex = 0;
-        private boolean running = false;
-        private String currentStatus = "Initializing";
+        private volatile int currentModuleIndex = 0;
+        private volatile boolean running = false;
+        private volatile String currentStatus = "Initializing";
         
         public ModuleChain(MemuInstance instance, List<String> modules) {
             this.instance = instance;
@@ -118,7 +117,8 @@ public class ModuleOrchestrator {
         public void start() {
             running = true;
             currentModuleIndex = 0;
-            executeNextModule();
+            // Module tasks are built off the EDT
+            ModuleChainExecutor.execute(this::executeNextModule);
         }
         
         public void stop() {
@@ -146,7 +146,7 @@ public class ModuleOrchestrator {
             }
         }
         
-        private void executeNextModule() {
+        private synchronized void executeNextModule() {
             if (!running || currentModuleIndex >= moduleQueue.size()) {
                 // Chain completed
                 currentStatus = "Chain completed";
@@ -188,20 +188,16 @@ public class ModuleOrchestrator {
                     
                     // For gather resources, we consider it "started" and move to next
                     // The hibernation system will handle the timing
-                    Timer gatherStartTimer = new Timer(5000, e -> moveToNextModule());
-                    gatherStartTimer.setRepeats(false);
-                    gatherStartTimer.start();
+                    ModuleChainExecutor.schedule(this::moveToNextModule, 5000);
                     break;
                     
                 case "Auto Gift Claim":
                     // Simulate gift claiming for now
                     Main.addToConsole("🎁 " + instance.name + " - Starting Auto Gift Claim");
-                    Timer giftTimer = new Timer(3000, e -> {
+                    ModuleChainExecutor.schedule(() -> {
                         Main.addToConsole("✅ " + instance.name + " - Auto Gift Claim completed");
                         moveToNextModule();
-                    });
-                    giftTimer.setRepeats(false);
-                    giftTimer.start();
+                    }, 3000);
                     break;
                     
                 default:
@@ -211,14 +207,12 @@ public class ModuleOrchestrator {
             }
         }
         
-        private void moveToNextModule() {
+        private synchronized void moveToNextModule() {
             currentModuleIndex++;
             
             if (running) {
                 // Small delay between modules
-                Timer nextModuleTimer = new Timer(2000, e -> executeNextModule());
-                nextModuleTimer.setRepeats(false);
-                nextModuleTimer.start();
+                ModuleChainExecutor.schedule(this::executeNextModule, 2000);
             }
         }
     }
@@ -0,0 +1,290 @@
+package newgame;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.FileWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import javax.imageio.ImageIO;
+
+/**
+ * Measures OCR speed and accuracy over a labelled corpus of region images.
+ *
+ * Corpus layout: one subdirectory per region kind ("time", "march_panel",
+ * "text"), each holding PNG crops with a same-named .txt file containing the
+ * expected text. Every OCR entry point that reads that kind is run on every
+ * image, and every engine is run with every config of the kind. The result is
+ * written as JSON so runs can be compared between versions. Learning is
+ * switched off for the whole run and the benchmark region's history is
+ * dropped, so every read starts from the state loaded from disk and nothing
+ * the benchmark reads leaks into production files.
+ *
+ * Usage: OCRBenchmark [corpusDir] [iterations] [output.json]
+ */
+public class OCRBenchmark {
+    private static final String DEFAULT_CORPUS = "ocr_corpus";
+    private static final int DEFAULT_ITERATIONS = 3;
+    // Keeps benchmark reads apart from the production regions
+    private static final String BENCHMARK_REGION = "benchmark";
+
+    static class Sample {
+        String name;
+        BufferedImage image;
+        String expected;
+    }
+
+    static class Stats {
+        String name;
+        int reads;
+        int correct;
+        double accuracy;
+        double engineCallsPerRead;
+        double p50Ms;
+        double p90Ms;
+        double p99Ms;
+        double maxMs;
+        List<String> misreads = new ArrayList<>();
+    }
+
+    static class Report {
+        String timestamp;
+        String engine;
+        int timerGlyphSamples;
+        String corpus;
+        int iterations;
+        Map<String, List<Stats>> entryPoints = new LinkedHashMap<>();
+        Map<String, List<Stats>> configs = new LinkedHashMap<>();
+    }
+
+    /**
+     * OCR entry points to benchmark for each region kind
+     */
+    private static Map<String, Function<BufferedImage, String>> entryPointsFor(String kind) {
+        Map<String, Function<BufferedImage, String>> entryPoints = new LinkedHashMap<>();
+        switch (kind) {
+            case "time":
+                entryPoints.put("performTimeOCR", image -> OCRUtils.performTimeOCR(image, null, 0, BENCHMARK_REGION));
+                entryPoints.put("timerGlyphs", image -> {
+                    TimerGlyphRecognizer.Result result = TimerGlyphRecognizer.recognize(image);
+                    return result.isConfident() ? result.time : null;
+                });
+                entryPoints.put("runTesseractOCR", image -> BotUtils.runTesseractOCR(image, null, 0, BENCHMARK_REGION));
+                break;
+            case "march_panel":
+                entryPoints.put("performMarchQueueOCR", image -> OCRUtils.performMarchQueueOCR(image, null, 0));
+                break;
+            default:
+                entryPoints.put("runTesseractOCR", image -> BotUtils.runTesseractOCR(image, null, 0, BENCHMARK_REGION));
+                break;
+        }
+        return entryPoints;
+    }
+
+    private static OCREngine.Config[] configsFor(String kind) {
+        switch (kind) {
+            case "time":
+                return OCRUtils.TIME_CONFIGS;
+            case "march_panel":
+                return OCRUtils.MARCH_QUEUE_CONFIGS;
+            default:
+                return BotUtils.TIME_OCR_CONFIGS;
+        }
+    }
+
+    private static List<OCREngine> availableEngines() {
+        List<OCREngine> engines = new ArrayList<>();
+        OCREngine process = new TesseractProcessEngine();
+        if (process.isAvailable()) {
+            engines.add(process);
+        }
+        try {
+            Class.forName("net.sourceforge.tess4j.TessAPI1");
+            OCREngine jni = new TesseractJniEngine();
+            if (jni.isAvailable()) {
+                engines.add(jni);
+            }
+        } catch (Throwable t) {
+            // Tess4J not on the classpath
+        }
+        return engines;
+    }
+
+    public static void main(String[] args) throws Exception {
+        String corpus = args.length > 0 ? args[0] : DEFAULT_CORPUS;
+        int iterations = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_ITERATIONS;
+        String output = args.length > 2 ? args[2] :
+            "ocr_benchmark_" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss")) + ".json";
+
+        OCRUtils.setLearningEnabled(false);
+        OCRConfigStats.forget(BENCHMARK_REGION);
+
+        File[] kindDirs = new File(corpus).listFiles(File::isDirectory);
+        if (kindDirs == null) {
+            System.err.println("❌ [BENCH] Corpus directory not found: " + corpus);
+            System.exit(1);
+        }
+        Arrays.sort(kindDirs);
+
+        Report report = new Report();
+        report.timestamp = LocalDateTime.now().toString();
+        report.engine = OCRUtils.getEngine().getName();
+        report.timerGlyphSamples = TimerGlyphRecognizer.getSampleCount();
+        report.corpus = new File(corpus).getAbsolutePath();
+        report.iterations = iterations;
+        List<OCREngine> engines = availableEngines();
+
+        for (File kindDir : kindDirs) {
+            String kind = kindDir.getName();
+            List<Sample> samples = loadSamples(kindDir);
+            if (samples.isEmpty()) {
+                continue;
+            }
+            System.out.println("📏 [BENCH] " + kind + ": " + samples.size() + " labelled images");
+
+            List<Stats> entryPointStats = new ArrayList<>();
+            for (Map.Entry<String, Function<BufferedImage, String>> entryPoint : entryPointsFor(kind).entrySet()) {
+                entryPointStats.add(measure(entryPoint.getKey(), entryPoint.getValue(), samples, kind, iterations));
+            }
+            report.entryPoints.put(kind, entryPointStats);
+
+            List<Stats> configStats = new ArrayList<>();
+            for (OCREngine engine : engines) {
+                for (OCREngine.Config config : configsFor(kind)) {
+                    Stats stats = measure(engine.getName() + " " + config, image -> {
+                        try {
+                            return engine.recognize(image, config);
+                        } catch (Exception e) {
+                            return null;
+                        }
+                    }, samples, kind, iterations);
+                    // Engines are called directly here, bypassing the OCRUtils counter
+                    stats.engineCallsPerRead = 1;
+                    configStats.add(stats);
+                }
+            }
+            report.configs.put(kind, configStats);
+        }
+
+        Gson gson = new GsonBuilder().setPrettyPrinting().create();
+        try (FileWriter writer = new FileWriter(output)) {
+            gson.toJson(report, writer);
+        }
+        printSummary(report);
+        System.out.println("💾 [BENCH] Results written to " + output);
+        System.exit(0);
+    }
+
+    private static List<Sample> loadSamples(File dir) throws Exception {
+        List<Sample> samples = new ArrayList<>();
+        File[] images = dir.listFiles((d, name) -> name.toLowerCase().endsWith(".png"));
+        if (images == null) {
+            return samples;
+        }
+        Arrays.sort(images);
+        for (File imageFile : images) {
+            File labelFile = new File(dir, imageFile.getName().replaceAll("(?i)\\.png$", ".txt"));
+            if (!labelFile.exists()) {
+                System.out.println("⚠️ [BENCH] No label for " + imageFile.getName() + ", skipping");
+                continue;
+            }
+            Sample sample = new Sample();
+            sample.name = imageFile.getName();
+            sample.image = ImageIO.read(imageFile);
+            sample.expected = new String(Files.readAllBytes(labelFile.toPath()), StandardCharsets.UTF_8).trim();
+            if (sample.image != null) {
+                samples.add(sample);
+            }
+        }
+        return samples;
+    }
+
+    /**
+     * Run one reader over every sample. The OCR result cache is cleared before
+     * each read so repeated iterations measure real work.
+     */
+    private static Stats measure(String name, Function<BufferedImage, String> reader, List<Sample> samples,
+                                 String kind, int iterations) {
+        List<Long> latencies = new ArrayList<>();
+        Stats stats = new Stats();
+        stats.name = name;
+        long callsBefore = OCRUtils.getEngineInvocations();
+
+        for (int iteration = 0; iteration < iterations; iteration++) {
+            for (Sample sample : samples) {
+                OCRResultCache.clear();
+                long start = System.nanoTime();
+                String result = reader.apply(sample.image);
+                latencies.add(System.nanoTime() - start);
+
+                stats.reads++;
+                if (matches(kind, sample.expected, result)) {
+                    stats.correct++;
+                } else if (iteration == 0) {
+                    stats.misreads.add(sample.name + ": expected '" + sample.expected + "', got '" + result + "'");
+                }
+            }
+        }
+
+        latencies.sort(null);
+        stats.accuracy = stats.reads == 0 ? 0 : (double) stats.correct / stats.reads;
+        stats.engineCallsPerRead = stats.reads == 0 ? 0 : (double) (OCRUtils.getEngineInvocations() - callsBefore) / stats.reads;
+        stats.p50Ms = percentile(latencies, 0.50);
+        stats.p90Ms = percentile(latencies, 0.90);
+        stats.p99Ms = percentile(latencies, 0.99);
+        stats.maxMs = latencies.isEmpty() ? 0 : latencies.get(latencies.size() - 1) / 1_000_000.0;
+        return stats;
+    }
+
+    /**
+     * Exact match after normalization: times compare as parsed HH:MM:SS,
+     * other text with whitespace collapsed
+     */
+    private static boolean matches(String kind, String expected, String actual) {
+        if (actual == null) {
+            return false;
+        }
+        if (kind.equals("time")) {
+            String parsed = TimeUtils.parseTimeFromText(actual);
+            return parsed != null && parsed.equals(TimeUtils.parseTimeFromText(expected));
+        }
+        return actual.trim().replaceAll("\\s+", " ").equals(expected.replaceAll("\\s+", " "));
+    }
+
+    private static double percentile(List<Long> sorted, double fraction) {
+        if (sorted.isEmpty()) {
+            return 0;
+        }
+        int index = (int) Math.ceil(fraction * sorted.size()) - 1;
+        return sorted.get(Math.max(0, Math.min(index, sorted.size() - 1))) / 1_000_000.0;
+    }
+
+    private static void printSummary(Report report) {
+        System.out.println("📊 [BENCH] Engine: " + report.engine + ", iterations: " + report.iterations +
+                           ", timer glyph samples: " + report.timerGlyphSamples);
+        for (String kind : report.entryPoints.keySet()) {
+            System.out.println("=== " + kind + " ===");
+            for (Stats stats : report.entryPoints.get(kind)) {
+                printStats(stats);
+            }
+            System.out.println("  -- per config --");
+            for (Stats stats : report.configs.get(kind)) {
+                printStats(stats);
+            }
+        }
+    }
+
+    private static void printStats(Stats stats) {
+        System.out.println(String.format("  %-60s acc %5.1f%%  calls/read %.2f  p50 %7.2fms  p90 %7.2fms  p99 %7.2fms",
+            stats.name, stats.accuracy * 100, stats.engineCallsPerRead, stats.p50Ms, stats.p90Ms, stats.p99Ms));
+    }
+}
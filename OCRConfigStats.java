@@ -0,0 +1,176 @@
+package newgame;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.reflect.TypeToken;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Remembers which OCR config wins for each named screen region so the
+ * historical winner can be tried alone first. Persisted to ocr_config_stats.json.
+ */
+public class OCRConfigStats {
+    private static final String STATS_FILE = "ocr_config_stats.json";
+    private static final int MIN_WINS_TO_LEAD = 3;
+    private static final double MIN_LEAD_SHARE = 0.6;
+    private static final long SAVE_INTERVAL_MS = 30_000;
+
+    private static final Gson gson = new GsonBuilder().setPrettyPrinting().create();
+    private static Map<String, RegionStats> regions = new TreeMap<>();
+    private static boolean dirty;
+    private static boolean frozen;
+    private static long lastSaveTime;
+
+    static {
+        load();
+        Runtime.getRuntime().addShutdownHook(new Thread(OCRConfigStats::save, "ocr-stats-shutdown"));
+    }
+
+    /**
+     * Per-region counters. Wins are keyed by the config's command-line form.
+     */
+    static class RegionStats {
+        int reads;
+        int runs;
+        Map<String, Integer> wins = new LinkedHashMap<>();
+
+        int winsFor(OCREngine.Config config) {
+            return wins.getOrDefault(config.toString(), 0);
+        }
+
+        double averageRunsPerRead() {
+            return reads == 0 ? 0 : (double) runs / reads;
+        }
+    }
+
+    /**
+     * Configs sorted by past wins in this region, most successful first.
+     * Configs with equal wins keep their given order.
+     */
+    public static synchronized OCREngine.Config[] order(String region, OCREngine.Config[] configs) {
+        RegionStats stats = regions.get(region);
+        if (stats == null) {
+            return configs;
+        }
+        OCREngine.Config[] ordered = configs.clone();
+        Arrays.sort(ordered, Comparator.comparingInt((OCREngine.Config config) -> stats.winsFor(config)).reversed());
+        return ordered;
+    }
+
+    /**
+     * The config that has won this region often enough to be tried on its own,
+     * or null while the history is too short or too mixed
+     */
+    public static synchronized OCREngine.Config leader(String region, OCREngine.Config[] ordered) {
+        RegionStats stats = regions.get(region);
+        if (stats == null || ordered.length == 0) {
+            return null;
+        }
+        int wins = stats.winsFor(ordered[0]);
+        if (wins >= MIN_WINS_TO_LEAD && wins >= stats.reads * MIN_LEAD_SHARE) {
+            return ordered[0];
+        }
+        return null;
+    }
+
+    /**
+     * Record one read of a region: the winning config (null if nothing usable
+     * was read) and how many engine runs it took
+     */
+    public static synchronized void recordRead(String region, OCREngine.Config winner, int runs) {
+        if (frozen) {
+            return;
+        }
+        RegionStats stats = regions.computeIfAbsent(region, key -> new RegionStats());
+        stats.reads++;
+        stats.runs += runs;
+        if (winner != null) {
+            stats.wins.merge(winner.toString(), 1, Integer::sum);
+        }
+        dirty = true;
+
+        if (System.currentTimeMillis() - lastSaveTime >= SAVE_INTERVAL_MS) {
+            save();
+        }
+    }
+
+    public static synchronized double getAverageRunsPerRead(String region) {
+        RegionStats stats = regions.get(region);
+        return stats != null ? stats.averageRunsPerRead() : 0;
+    }
+
+    public static synchronized String describe() {
+        if (regions.isEmpty()) {
+            return "No OCR reads recorded yet";
+        }
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<String, RegionStats> entry : regions.entrySet()) {
+            RegionStats stats = entry.getValue();
+            sb.append(String.format("%s: %d reads, %.2f runs/read", entry.getKey(), stats.reads, stats.averageRunsPerRead()));
+            stats.wins.entrySet().stream()
+                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+                .forEach(win -> sb.append(String.format("%n    %4d wins  %s", win.getValue(), win.getKey())));
+            sb.append(System.lineSeparator());
+        }
+        return sb.toString().trim();
+    }
+
+    /**
+     * While frozen, reads are not recorded and nothing is written to disk
+     */
+    static synchronized void setFrozen(boolean freeze) {
+        frozen = freeze;
+    }
+
+    /**
+     * Drop one region's history. Only in memory while frozen.
+     */
+    static synchronized void forget(String region) {
+        if (regions.remove(region) != null) {
+            dirty = true;
+        }
+    }
+
+    public static synchronized void reset() {
+        regions.clear();
+        dirty = true;
+        save();
+    }
+
+    private static synchronized void load() {
+        File file = new File(STATS_FILE);
+        if (!file.exists()) {
+            return;
+        }
+        try (FileReader reader = new FileReader(file)) {
+            java.lang.reflect.Type type = new TypeToken<TreeMap<String, RegionStats>>(){}.getType();
+            Map<String, RegionStats> loaded = gson.fromJson(reader, type);
+            if (loaded != null) {
+                regions = loaded;
+                System.out.println("📊 [OCR] Loaded config win history for " + regions.size() + " regions");
+            }
+        } catch (Exception e) {
+            System.err.println("⚠️ [OCR] Could not load " + STATS_FILE + ": " + e.getMessage());
+        }
+    }
+
+    private static synchronized void save() {
+        lastSaveTime = System.currentTimeMillis();
+        if (!dirty || frozen) {
+            return;
+        }
+        try (FileWriter writer = new FileWriter(STATS_FILE)) {
+            gson.toJson(regions, writer);
+            dirty = false;
+        } catch (Exception e) {
+            System.err.println("⚠️ [OCR] Could not save " + STATS_FILE + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package newgame;
+
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.imageio.ImageIO;
+
+/**
+ * A text recognizer that OCRUtils and BotUtils route every OCR call through
+ */
+public interface OCREngine {
+
+    String getName();
+
+    boolean isAvailable();
+
+    /**
+     * Recognize text in an in-memory image. Returns the trimmed text, possibly empty.
+     * Throws if the engine itself failed, so the caller can fall back.
+     */
+    String recognize(BufferedImage image, Config config) throws Exception;
+
+    /**
+     * Recognize individual words with their bounding boxes, in reading order
+     */
+    List<Word> recognizeWords(BufferedImage image, Config config) throws Exception;
+
+    /**
+     * Recognize text in an image file
+     */
+    default String recognize(String imagePath, Config config) throws Exception {
+        return recognize(readImage(imagePath), config);
+    }
+
+    default List<Word> recognizeWords(String imagePath, Config config) throws Exception {
+        return recognizeWords(readImage(imagePath), config);
+    }
+
+    static BufferedImage readImage(String imagePath) throws Exception {
+        BufferedImage image = ImageIO.read(new File(imagePath));
+        if (image == null) {
+            throw new IllegalArgumentException("Could not read image: " + imagePath);
+        }
+        return image;
+    }
+
+    /**
+     * A recognized word. line identifies the text line it belongs to.
+     */
+    class Word {
+        public final String text;
+        public final Rectangle box;
+        public final int line;
+        public final float confidence;
+
+        public Word(String text, Rectangle box, int line, float confidence) {
+            this.text = text;
+            this.box = box;
+            this.line = line;
+            this.confidence = confidence;
+        }
+
+        /**
+         * Parse Tesseract TSV output, keeping only word rows (level 5)
+         */
+        public static List<Word> parseTsv(String tsv) {
+            List<Word> words = new ArrayList<>();
+            if (tsv == null) {
+                return words;
+            }
+            for (String row : tsv.split("\r?\n")) {
+                String[] columns = row.split("\t");
+                if (columns.length < 12 || !columns[0].equals("5")) {
+                    continue;
+                }
+                String text = columns[11].trim();
+                if (text.isEmpty()) {
+                    continue;
+                }
+                try {
+                    int line = Integer.parseInt(columns[2]) * 10000 + Integer.parseInt(columns[3]) * 100 +
+                               Integer.parseInt(columns[4]);
+                    Rectangle box = new Rectangle(Integer.parseInt(columns[6]), Integer.parseInt(columns[7]),
+                                                  Integer.parseInt(columns[8]), Integer.parseInt(columns[9]));
+                    words.add(new Word(text, box, line, Float.parseFloat(columns[10])));
+                } catch (NumberFormatException e) {
+                    // Header or malformed row
+                }
+            }
+            return words;
+        }
+    }
+
+    /**
+     * One Tesseract configuration: page segmentation mode, engine mode and
+     * extra variables such as tessedit_char_whitelist
+     */
+    class Config {
+        public final int psm;
+        public final int oem;
+        public final Map<String, String> variables;
+
+        public Config(int psm, int oem, Map<String, String> variables) {
+            this.psm = psm;
+            this.oem = oem;
+            this.variables = Collections.unmodifiableMap(new LinkedHashMap<>(variables));
+        }
+
+        public Config(int psm, int oem) {
+            this(psm, oem, Collections.emptyMap());
+        }
+
+        public static Config withWhitelist(int psm, int oem, String whitelist) {
+            Map<String, String> variables = new LinkedHashMap<>();
+            variables.put("tessedit_char_whitelist", whitelist);
+            return new Config(psm, oem, variables);
+        }
+
+        /**
+         * Parse command-line style options, e.g. "--psm 7 --oem 1 -c tessedit_char_whitelist=0123456789:".
+         * A -c value runs to the end of the string, so whitelists may contain spaces.
+         */
+        public static Config parse(String options) {
+            int psm = 3;
+            int oem = 3;
+            Map<String, String> variables = new LinkedHashMap<>();
+
+            String[] tokens = options.trim().split(" ");
+            for (int i = 0; i < tokens.length; i++) {
+                String token = tokens[i];
+                if (token.equals("--psm") && i + 1 < tokens.length) {
+                    psm = Integer.parseInt(tokens[++i]);
+                } else if (token.equals("--oem") && i + 1 < tokens.length) {
+                    oem = Integer.parseInt(tokens[++i]);
+                } else if (token.equals("-c") && i + 1 < tokens.length) {
+                    String assignment = String.join(" ", java.util.Arrays.copyOfRange(tokens, i + 1, tokens.length));
+                    int eq = assignment.indexOf('=');
+                    if (eq > 0) {
+                        variables.put(assignment.substring(0, eq), assignment.substring(eq + 1));
+                    }
+                    break;
+                }
+            }
+            return new Config(psm, oem, variables);
+        }
+
+        /**
+         * Command-line arguments for the tesseract executable
+         */
+        public List<String> toArgs() {
+            List<String> args = new ArrayList<>();
+            args.add("--psm");
+            args.add(String.valueOf(psm));
+            args.add("--oem");
+            args.add(String.valueOf(oem));
+            for (Map.Entry<String, String> variable : variables.entrySet()) {
+                args.add("-c");
+                args.add(variable.getKey() + "=" + variable.getValue());
+            }
+            return args;
+        }
+
+        @Override
+        public String toString() {
+            return String.join(" ", toArgs());
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Config)) {
+                return false;
+            }
+            Config config = (Config) other;
+            return psm == config.psm && oem == config.oem && variables.equals(config.variables);
+        }
+
+        @Override
+        public int hashCode() {
+            return (psm * 31 + oem) * 31 + variables.hashCode();
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package newgame;
+
+import java.awt.image.BufferedImage;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded LRU of OCR results keyed by a hash of the preprocessed region pixels
+ * and the configs used to read them. Unchanged panels and repeated reads of
+ * the same time skip the PNG write and Tesseract entirely.
+ */
+public class OCRResultCache {
+    private static final int MAX_ENTRIES = 512;
+
+    private static final Map<String, String> results = new LinkedHashMap<String, String>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+    private static final AtomicLong hits = new AtomicLong();
+    private static final AtomicLong misses = new AtomicLong();
+
+    /**
+     * Cache key for an image read with the given configs in a named region
+     */
+    public static String keyFor(BufferedImage image, String region, OCREngine.Config[] configs) {
+        StringBuilder key = new StringBuilder(region).append('|');
+        for (OCREngine.Config config : configs) {
+            key.append(config).append(';');
+        }
+        return key.append('|').append(image.getWidth()).append('x').append(image.getHeight())
+                  .append('|').append(Long.toHexString(pixelHash(image))).toString();
+    }
+
+    /**
+     * Cached text for the key, or null on a miss
+     */
+    public static String get(String key) {
+        String cached;
+        synchronized (results) {
+            cached = results.get(key);
+        }
+        (cached != null ? hits : misses).incrementAndGet();
+        return cached;
+    }
+
+    /**
+     * Store a result. Failed reads (null or blank) are not cached so they are retried.
+     */
+    public static void put(String key, String text) {
+        if (text == null || text.trim().isEmpty()) {
+            return;
+        }
+        synchronized (results) {
+            results.put(key, text);
+        }
+    }
+
+    public static long getHits() {
+        return hits.get();
+    }
+
+    public static long getMisses() {
+        return misses.get();
+    }
+
+    public static double getHitRate() {
+        long total = hits.get() + misses.get();
+        return total == 0 ? 0 : (double) hits.get() / total;
+    }
+
+    public static String describe() {
+        int size;
+        synchronized (results) {
+            size = results.size();
+        }
+        return String.format("OCR cache: %d hits, %d misses (%.1f%% hit rate), %d/%d entries",
+            hits.get(), misses.get(), getHitRate() * 100, size, MAX_ENTRIES);
+    }
+
+    public static void clear() {
+        synchronized (results) {
+            results.clear();
+        }
+    }
+
+    /**
+     * 64-bit FNV-1a over the RGB values, read one row at a time so sub-images
+     * and every raster type work without copying the whole image
+     */
+    static long pixelHash(BufferedImage image) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        int[] row = new int[width];
+        long hash = 0xcbf29ce484222325L;
+        for (int y = 0; y < height; y++) {
+            image.getRGB(0, y, width, 1, row, 0, width);
+            for (int pixel : row) {
+                hash = (hash ^ (pixel & 0xFFFFFF)) * 0x100000001b3L;
+            }
+        }
+        return hash;
+    }
+}
@@ -1,7 +1,30 @@
 package newgame;
 
+import java.awt.Rectangle;
 import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferInt;
 import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import javax.imageio.ImageIO;
@@ -11,48 +34,303 @@ import javax.imageio.ImageIO;
  * Provides enhanced OCR functionality with multiple configurations and scoring
  */
 public class OCRUtils {
+    // Block mode so every stacked region is read in the one pass
+    private static final OCREngine.Config BATCH_TIME_CONFIG = OCREngine.Config.withWhitelist(6, 1, "0123456789:");
+    private static final int BATCH_PADDING = 12;
+    
+    // Time configs, starting with single word mode, LSTM engine, only digits and colon
+    static final OCREngine.Config[] TIME_CONFIGS = {
+        OCREngine.Config.withWhitelist(8, 1, "0123456789:"),
+        OCREngine.Config.withWhitelist(7, 1, "0123456789:"),
+        OCREngine.Config.withWhitelist(8, 1, "0123456789"),
+        OCREngine.Config.withWhitelist(6, 1, "0123456789:")
+    };
+    private static final double TIME_EXCELLENT_SCORE = 9.0;
+    private static final String TEXT_WHITELIST = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789 :";
+    
+    static final OCREngine.Config[] ENHANCED_CONFIGS = {
+        OCREngine.Config.withWhitelist(6, 1, TEXT_WHITELIST),
+        OCREngine.Config.withWhitelist(7, 1, TEXT_WHITELIST),
+        OCREngine.Config.withWhitelist(8, 1, TEXT_WHITELIST),
+        new OCREngine.Config(6, 3),
+        new OCREngine.Config(7, 3)
+    };
+    
+    static final OCREngine.Config[] MARCH_QUEUE_CONFIGS = {
+        OCREngine.Config.withWhitelist(6, 1, TEXT_WHITELIST),
+        OCREngine.Config.withWhitelist(7, 1, TEXT_WHITELIST),
+        new OCREngine.Config(6, 3),
+        new OCREngine.Config(7, 3)
+    };
+    
+    // Shared by every instance, so the whole fleet never runs more than this many OCR jobs at once
+    private static final int OCR_POOL_SIZE = Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors() / 2));
+    private static final String OCR_THREAD_PREFIX = "ocr-worker-";
+    private static final AtomicInteger ocrThreadCounter = new AtomicInteger();
+    private static final ExecutorService ocrPool = Executors.newFixedThreadPool(OCR_POOL_SIZE, runnable -> {
+        Thread thread = new Thread(runnable, OCR_THREAD_PREFIX + ocrThreadCounter.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+    
+    private static volatile double debugDumpRate = readDebugDumpRate();
+    private static final AtomicLong engineInvocations = new AtomicLong();
+    private static final AtomicBoolean configLearning = new AtomicBoolean();
+    private static final AtomicBoolean glyphLearning = new AtomicBoolean();
+    private static volatile boolean learningEnabled = true;
+    
+    private static final OCREngine processEngine = new TesseractProcessEngine();
+    private static OCREngine primaryEngine;
     
     /**
-     * Perform enhanced OCR with multiple configurations and return best result
+     * Engine used for all OCR: in-process Tesseract when Tess4J is on the
+     * classpath and tessdata is found, otherwise the tesseract executable
      */
-    public static String performEnhancedOCR(String imagePath, int instanceIndex) {
+    public static synchronized OCREngine getEngine() {
+        if (primaryEngine == null) {
+            primaryEngine = processEngine;
+            try {
+                Class.forName("net.sourceforge.tess4j.TessAPI1");
+                OCREngine jniEngine = new TesseractJniEngine(OCR_POOL_SIZE);
+                if (jniEngine.isAvailable()) {
+                    primaryEngine = jniEngine;
+                }
+            } catch (Throwable t) {
+                System.out.println("ℹ️ [OCR] Tess4J not available, using tesseract executable");
+            }
+            System.out.println("🔤 [OCR] Using OCR engine: " + primaryEngine.getName());
+        }
+        return primaryEngine;
+    }
+    
+    /**
+     * Run one OCR configuration on an in-memory image, falling back to the
+     * tesseract executable if the in-process engine fails. Returns null if no
+     * engine worked or the thread was interrupted, with the interrupt kept.
+     */
+    public static String recognize(BufferedImage image, OCREngine.Config config) {
+        OCREngine engine = getEngine();
+        engineInvocations.incrementAndGet();
         try {
-            System.out.println("🔍 [OCR] Performing enhanced OCR on: " + imagePath);
-            
-            // Try multiple OCR configurations for best results
-            String[] ocrConfigs = {
-                "--psm 6 --oem 1 -c tessedit_char_whitelist=ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789 :",
-                "--psm 7 --oem 1 -c tessedit_char_whitelist=ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789 :",
-                "--psm 8 --oem 1 -c tessedit_char_whitelist=ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789 :",
-                "--psm 6 --oem 3",
-                "--psm 7 --oem 3"
-            };
-            
-            String bestResult = "";
-            int bestScore = 0;
-            
-            for (int i = 0; i < ocrConfigs.length; i++) {
-                System.out.println("🔍 [OCR] Trying config " + (i+1) + "/" + ocrConfigs.length + " (PSM " + extractPSM(ocrConfigs[i]) + ")...");
+            return engine.recognize(image, config);
+        } catch (InterruptedException e) {
+            // Cancelled, e.g. a losing config; a fallback run would only add work
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (Throwable e) {
+            System.err.println("❌ [OCR] " + engine.getName() + " failed (" + config + "): " + e.getMessage());
+        }
+        
+        if (engine != processEngine && processEngine.isAvailable() && !Thread.currentThread().isInterrupted()) {
+            engineInvocations.incrementAndGet();
+            try {
+                return processEngine.recognize(image, config);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                System.err.println("❌ [OCR] " + processEngine.getName() + " failed (" + config + "): " + e.getMessage());
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Total OCR engine calls since startup, fallbacks included
+     */
+    public static long getEngineInvocations() {
+        return engineInvocations.get();
+    }
+    
+    /**
+     * Word-level recognize with the same fallback as recognize.
+     * Returns null if no engine worked.
+     */
+    public static List<OCREngine.Word> recognizeWords(BufferedImage image, OCREngine.Config config) {
+        OCREngine engine = getEngine();
+        engineInvocations.incrementAndGet();
+        try {
+            return engine.recognizeWords(image, config);
+        } catch (InterruptedException e) {
+            // Cancelled, e.g. a losing config; a fallback run would only add work
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (Throwable e) {
+            System.err.println("❌ [OCR] " + engine.getName() + " word read failed (" + config + "): " + e.getMessage());
+        }
+        
+        if (engine != processEngine && processEngine.isAvailable() && !Thread.currentThread().isInterrupted()) {
+            engineInvocations.incrementAndGet();
+            try {
+                return processEngine.recognizeWords(image, config);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                System.err.println("❌ [OCR] " + processEngine.getName() + " word read failed (" + config + "): " + e.getMessage());
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Best result of a multi-config OCR run
+     */
+    static class ScoredText {
+        final String text;
+        final double score;
+        final int configIndex;
+        final OCREngine.Config config;
+        
+        ScoredText(String text, double score, int configIndex, OCREngine.Config config) {
+            this.text = text;
+            this.score = score;
+            this.configIndex = configIndex;
+            this.config = config;
+        }
+    }
+    
+    /**
+     * OCR a named screen region with the given configs and return the best
+     * result, or null if nothing scored above zero. Configs are tried in order
+     * of past wins for the region; once one config has a clear track record it
+     * runs alone first and the others only run if it falls short of excellentScore.
+     */
+    static ScoredText runConfigs(String region, BufferedImage image, OCREngine.Config[] configs,
+                                 ToDoubleFunction<String> scorer, double excellentScore, String label) {
+        OCREngine.Config[] ordered = OCRConfigStats.order(region, configs);
+        OCREngine.Config leader = OCRConfigStats.leader(region, ordered);
+        AtomicInteger runs = new AtomicInteger();
+        
+        ScoredText best = null;
+        int remainingFrom = 0;
+        if (leader != null) {
+            runs.incrementAndGet();
+            best = score(recognize(image, leader), 0, leader, scorer, label, ordered.length);
+            remainingFrom = 1;
+        }
+        
+        if (best == null || best.score < excellentScore) {
+            ScoredText rest = runConfigsInParallel(image, ordered, remainingFrom, scorer, excellentScore, label, runs);
+            if (rest != null && (best == null || rest.score > best.score)) {
+                best = rest;
+            }
+        }
+        
+        OCRConfigStats.recordRead(region, best != null ? best.config : null, runs.get());
+        return best;
+    }
+    
+    /**
+     * Run configs[from..] concurrently on the shared OCR pool and return the
+     * highest-scoring non-empty result (earlier configs win ties). As soon as
+     * one reaches excellentScore the remaining runs are cancelled, which kills
+     * their tesseract processes. Engine runs actually started are added to runs.
+     */
+    private static ScoredText runConfigsInParallel(BufferedImage image, OCREngine.Config[] configs, int from,
+                                                   ToDoubleFunction<String> scorer, double excellentScore,
+                                                   String label, AtomicInteger runs) {
+        if (from >= configs.length) {
+            return null;
+        }
+        if (Thread.currentThread().getName().startsWith(OCR_THREAD_PREFIX)) {
+            // Already on an OCR worker; waiting on the same pool could deadlock
+            return runConfigsSequentially(image, configs, from, scorer, excellentScore, label, runs);
+        }
+        
+        CompletionService<String> completion = new ExecutorCompletionService<>(ocrPool);
+        List<Future<String>> futures = new ArrayList<>();
+        Map<Future<String>, Integer> configIndexes = new HashMap<>();
+        for (int i = from; i < configs.length; i++) {
+            OCREngine.Config config = configs[i];
+            Future<String> future = completion.submit(() -> {
+                runs.incrementAndGet();
+                return recognize(image, config);
+            });
+            futures.add(future);
+            configIndexes.put(future, i);
+        }
+        
+        ScoredText best = null;
+        try {
+            for (int done = 0; done < futures.size(); done++) {
+                Future<String> future = completion.take();
+                int index = configIndexes.get(future);
+                String result;
+                try {
+                    result = future.get();
+                } catch (ExecutionException e) {
+                    System.err.println("❌ [OCR] " + label + " config " + (index + 1) + " failed: " + e.getCause());
+                    continue;
+                }
                 
-                String result = runTesseractWithConfig(imagePath, instanceIndex, ocrConfigs[i]);
-                if (result != null && !result.trim().isEmpty()) {
-                    int score = calculateGeneralOCRScore(result);
-                    System.out.println("📊 [OCR] Config " + (i+1) + " score: " + score);
-                    System.out.println("📝 [OCR] Config " + (i+1) + " result: '" + result.replace("\n", " | ") + "'");
-                    
-                    if (score > bestScore) {
-                        bestScore = score;
-                        bestResult = result;
-                        System.out.println("⭐ [OCR] New best result with score " + score);
-                        
-                        // If we get an excellent score, use it immediately
-                        if (score >= 95) {
-                            System.out.println("🎉 [OCR] Excellent result found, using immediately");
-                            break;
-                        }
-                    }
+                ScoredText candidate = score(result, index, configs[index], scorer, label, configs.length);
+                if (candidate == null) {
+                    continue;
+                }
+                if (best == null || candidate.score > best.score ||
+                    (candidate.score == best.score && candidate.configIndex < best.configIndex)) {
+                    best = candidate;
                 }
+                if (candidate.score >= excellentScore) {
+                    System.out.println("🎉 [OCR] Excellent " + label + " result from config " + (index + 1) + ", cancelling the rest");
+                    return candidate;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            for (Future<String> future : futures) {
+                future.cancel(true);
             }
+        }
+        return best;
+    }
+    
+    private static ScoredText runConfigsSequentially(BufferedImage image, OCREngine.Config[] configs, int from,
+                                                     ToDoubleFunction<String> scorer, double excellentScore,
+                                                     String label, AtomicInteger runs) {
+        ScoredText best = null;
+        for (int i = from; i < configs.length; i++) {
+            runs.incrementAndGet();
+            ScoredText candidate = score(recognize(image, configs[i]), i, configs[i], scorer, label, configs.length);
+            if (candidate != null && (best == null || candidate.score > best.score)) {
+                best = candidate;
+                if (candidate.score >= excellentScore) {
+                    break;
+                }
+            }
+        }
+        return best;
+    }
+    
+    private static ScoredText score(String result, int index, OCREngine.Config config,
+                                    ToDoubleFunction<String> scorer, String label, int total) {
+        if (result == null || result.trim().isEmpty()) {
+            return null;
+        }
+        double score = scorer.applyAsDouble(result);
+        System.out.println("📊 [OCR] " + label + " config " + (index + 1) + "/" + total + " (" + config + ") score: " + score +
+                           " result: '" + result.replace("\n", " | ") + "'");
+        return score > 0 ? new ScoredText(result, score, index, config) : null;
+    }
+    
+    /**
+     * Perform enhanced OCR with multiple configurations and return best result
+     */
+    public static String performEnhancedOCR(String imagePath, int instanceIndex) {
+        try {
+            System.out.println("🔍 [OCR] Performing enhanced OCR on: " + imagePath);
+            return performEnhancedOCR(OCREngine.readImage(imagePath));
+        } catch (Exception e) {
+            System.err.println("❌ [OCR] Error performing enhanced OCR: " + e.getMessage());
+            return null;
+        }
+    }
+    
+    private static String performEnhancedOCR(BufferedImage image) {
+        try {
+            // Try multiple OCR configurations concurrently for best results
+            ScoredText best = runConfigs("enhanced_page", image, ENHANCED_CONFIGS, OCRUtils::calculateGeneralOCRScore, 95, "Enhanced");
+            String bestResult = best != null ? best.text : "";
             
             System.out.println("📋 [OCR] Final Results:");
             System.out.println("=== START OCR TEXT ===");
@@ -67,43 +345,38 @@ public class OCRUtils {
         }
     }
     
+    /**
+     * Enhanced OCR on a captured frame, read straight from memory.
+     * debugPath receives a sampled debug dump when dumps are enabled.
+     */
+    public static String performEnhancedOCR(ScreenFrame frame, String debugPath) {
+        BufferedImage image = frame.image();
+        if (image == null) {
+            System.err.println("❌ [OCR] Could not load frame for OCR: " + frame.describe());
+            return null;
+        }
+        System.out.println("🔍 [OCR] Performing enhanced OCR on: " + frame.describe());
+        dumpDebugImage(image, debugPath);
+        return performEnhancedOCR(image);
+    }
+    
     /**
      * Perform OCR specifically optimized for march queue text
      */
     public static String performMarchQueueOCR(String imagePath, int instanceIndex) {
         try {
             System.out.println("🔍 [OCR] Performing march queue specific OCR on: " + imagePath);
-            
-            String[] ocrConfigs = {
-                "--psm 6 --oem 1 -c tessedit_char_whitelist=ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789 :",
-                "--psm 7 --oem 1 -c tessedit_char_whitelist=ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789 :",
-                "--psm 6 --oem 3",
-                "--psm 7 --oem 3"
-            };
-            
-            String bestResult = "";
-            int bestScore = 0;
-            
-            for (int i = 0; i < ocrConfigs.length; i++) {
-                System.out.println("🔍 [OCR] Trying march queue config " + (i+1) + "/" + ocrConfigs.length);
-                
-                String result = runTesseractWithConfig(imagePath, instanceIndex, ocrConfigs[i]);
-                if (result != null && !result.trim().isEmpty()) {
-                    int score = calculateMarchQueueOCRScore(result);
-                    System.out.println("📊 [OCR] March queue config " + (i+1) + " score: " + score);
-                    
-                    if (score > bestScore) {
-                        bestScore = score;
-                        bestResult = result;
-                        
-                        if (score >= 95) {
-                            break;
-                        }
-                    }
-                }
-            }
-            
-            return bestResult;
+            return performMarchQueueOCR(OCREngine.readImage(imagePath));
+        } catch (Exception e) {
+            System.err.println("❌ [OCR] Error performing march queue OCR: " + e.getMessage());
+            return null;
+        }
+    }
+    
+    private static String performMarchQueueOCR(BufferedImage image) {
+        try {
+            ScoredText best = runConfigs("march_panel", image, MARCH_QUEUE_CONFIGS, OCRUtils::calculateMarchQueueOCRScore, 95, "March queue");
+            return best != null ? best.text : null;
             
         } catch (Exception e) {
             System.err.println("❌ [OCR] Error performing march queue OCR: " + e.getMessage());
@@ -115,93 +388,415 @@ public class OCRUtils {
      * Perform OCR specifically optimized for time text (HH:MM:SS format)
      */
     public static String performTimeOCR(String imagePath, int instanceIndex) {
+        return performTimeOCR(imagePath, instanceIndex, "time");
+    }
+    
+    /**
+     * Time OCR for a named region such as "deploy_time" or "gather_time".
+     * Returns the raw text of a single engine run, possibly empty.
+     */
+    public static String performTimeOCR(String imagePath, int instanceIndex, String region) {
+        System.out.println("🔍 [OCR] Performing time-specific OCR on: " + imagePath);
         try {
-            System.out.println("🔍 [OCR] Performing time-specific OCR on: " + imagePath);
-            
-            String tesseractPath = "C:\\Program Files\\Tesseract-OCR\\tesseract.exe";
-            java.io.File tesseractExe = new java.io.File(tesseractPath);
-            
-            if (!tesseractExe.exists()) {
-                System.err.println("❌ [OCR] Tesseract not found at: " + tesseractPath);
-                return BotUtils.runTesseractOCR(imagePath, instanceIndex);
+            return performTimeOCR(OCREngine.readImage(imagePath), region);
+        } catch (Exception e) {
+            System.err.println("❌ [OCR] Error performing time OCR: " + e.getMessage());
+            return null;
+        }
+    }
+    
+    /**
+     * One run with the region's most successful time config (psm 8 until there
+     * is history). A read that falls short of a full H:MM:SS time is compared
+     * against the other configs in the background, so the history improves
+     * without the caller paying for the extra runs.
+     */
+    private static String performTimeOCR(BufferedImage image, String region) {
+        return performTimeOCR(image, region, OCRConfigStats.order(region, TIME_CONFIGS)[0]);
+    }
+    
+    private static String performTimeOCR(BufferedImage image, String region, OCREngine.Config config) {
+        String result = recognize(image, config);
+        
+        double score = result != null && !result.trim().isEmpty() ? BotUtils.scoreTimeExtractionResult(result) : 0;
+        if (score >= TIME_EXCELLENT_SCORE) {
+            OCRConfigStats.recordRead(region, config, 1);
+        } else {
+            learnConfigsInBackground(region, image, TIME_CONFIGS, BotUtils::scoreTimeExtractionResult, TIME_EXCELLENT_SCORE, "Time");
+        }
+        
+        System.out.println("📊 [OCR] Time OCR result: '" + result + "'");
+        return result;
+    }
+    
+    /**
+     * Run every config on the image on the OCR pool purely to record which one
+     * wins. At most one such job is in flight; reads arriving meanwhile are not learned from.
+     */
+    private static void learnConfigsInBackground(String region, BufferedImage image, OCREngine.Config[] configs,
+                                                 ToDoubleFunction<String> scorer, double excellentScore, String label) {
+        runInBackground(configLearning, "config comparison for " + region,
+            () -> runConfigs(region, image, configs, scorer, excellentScore, label + " (background)"));
+    }
+    
+    /**
+     * Teach the glyph recognizer from a Tesseract time read, but only once a
+     * second, different config reads the same time from the same pixels.
+     * Runs on the OCR pool so the caller never waits for the extra run.
+     */
+    private static void learnGlyphsInBackground(BufferedImage image, String text, OCREngine.Config readWith) {
+        String time = TimeUtils.parseTimeFromText(text);
+        if (time == null || !TimeUtils.isValidMarchTime(time)) {
+            return;
+        }
+        runInBackground(glyphLearning, "timer glyph learning", () -> {
+            if (confirmTimeRead(image, time, readWith)) {
+                TimerGlyphRecognizer.learn(image, text);
             }
-            
-            // OCR configuration optimized for time digits (HH:MM:SS format)
-            String[] ocrConfig = {
-                "--psm", "8",  // Single word mode
-                "--oem", "1",  // LSTM engine
-                "-c", "tessedit_char_whitelist=0123456789:"  // Only digits and colon
-            };
-            
-            java.util.List<String> command = new java.util.ArrayList<>();
-            command.add(tesseractPath);
-            command.add(imagePath);
-            command.add("stdout");
-            
-            for (String param : ocrConfig) {
-                command.add(param);
+        });
+    }
+    
+    /**
+     * True if another time config, not readWith, reads the same time from the image
+     */
+    static boolean confirmTimeRead(BufferedImage image, String time, OCREngine.Config readWith) {
+        for (OCREngine.Config config : TIME_CONFIGS) {
+            if (config.equals(readWith)) {
+                continue;
             }
-            
-            System.out.println("🖥️ [OCR] Running time-specific OCR: " + String.join(" ", command));
-            
-            ProcessBuilder pb = new ProcessBuilder(command);
-            Process process = pb.start();
-            
-            StringBuilder output = new StringBuilder();
-            try (java.io.BufferedReader reader = new java.io.BufferedReader(new java.io.InputStreamReader(process.getInputStream()))) {
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    output.append(line).append("\n");
+            String second = TimeUtils.parseTimeFromText(recognize(image, config));
+            if (time.equals(second)) {
+                return true;
+            }
+            System.out.println("🔢 [OCR] Not learning timer glyphs: " + readWith + " read " + time + ", " + config + " read " + second);
+            return false;
+        }
+        return false;
+    }
+    
+    /**
+     * Run job on the OCR pool unless the previous job of its kind is still going
+     */
+    private static void runInBackground(AtomicBoolean busy, String what, Runnable job) {
+        if (!learningEnabled || !busy.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            ocrPool.execute(() -> {
+                try {
+                    job.run();
+                } catch (RuntimeException e) {
+                    System.err.println("❌ [OCR] Background " + what + " failed: " + e.getMessage());
+                } finally {
+                    busy.set(false);
                 }
+            });
+        } catch (RejectedExecutionException e) {
+            busy.set(false);
+        }
+    }
+    
+    /**
+     * Time OCR on an in-memory region. The glyph recognizer answers when it is
+     * confident; otherwise results are cached by pixel content, so Tesseract
+     * only runs on a cache miss. debugPath receives sampled debug dumps.
+     */
+    public static String performTimeOCR(BufferedImage regionImage, String debugPath, int instanceIndex, String region) {
+        TimerGlyphRecognizer.Result glyphResult = TimerGlyphRecognizer.recognize(regionImage);
+        if (glyphResult.isConfident()) {
+            System.out.println("🔢 [OCR] Timer glyphs read " + glyphResult);
+            return glyphResult.time;
+        }
+        
+        // Only fresh Tesseract reads teach the glyph set; cache hits were learned from already
+        return cachedRead(regionImage, debugPath, region, TIME_CONFIGS, image -> {
+            OCREngine.Config config = OCRConfigStats.order(region, TIME_CONFIGS)[0];
+            String text = performTimeOCR(image, region, config);
+            learnGlyphsInBackground(image, text, config);
+            return text;
+        }, text -> TimeUtils.parseTimeSeconds(text) >= 0);
+    }
+    
+    /**
+     * Read several named regions of one frame with a single OCR pass. The
+     * crops are normalized to dark text on white, stacked vertically with
+     * blank separators into one composite (dumped to debugPath when sampled), and each
+     * recognized word is assigned back to its region by bounding box.
+     * Regions with no words map to "". Returns null if OCR failed outright.
+     */
+    public static Map<String, String> performBatchOCR(ScreenFrame frame, Map<String, Rectangle> regions,
+                                                      OCREngine.Config config, String debugPath) {
+        Map<String, BufferedImage> crops = new LinkedHashMap<>();
+        for (Map.Entry<String, Rectangle> region : regions.entrySet()) {
+            Rectangle bounds = region.getValue();
+            BufferedImage crop = cropRegion(frame, bounds.x, bounds.y, bounds.width, bounds.height);
+            if (crop != null) {
+                crops.put(region.getKey(), crop);
+            }
+        }
+        if (crops.isEmpty()) {
+            return null;
+        }
+        
+        int width = 0;
+        int height = BATCH_PADDING;
+        for (BufferedImage crop : crops.values()) {
+            width = Math.max(width, crop.getWidth());
+            height += crop.getHeight() + BATCH_PADDING;
+        }
+        width += 2 * BATCH_PADDING;
+        
+        BufferedImage composite = new BufferedImage(width, height, BufferedImage.TYPE_BYTE_GRAY);
+        byte[] canvas = ((DataBufferByte) composite.getRaster().getDataBuffer()).getData();
+        Arrays.fill(canvas, (byte) 0xFF);
+        
+        // Band of each region, extended half a separator each way
+        Map<String, int[]> bands = new LinkedHashMap<>();
+        int top = BATCH_PADDING;
+        for (Map.Entry<String, BufferedImage> crop : crops.entrySet()) {
+            BufferedImage image = crop.getValue();
+            drawNormalized(image, canvas, width, BATCH_PADDING, top);
+            bands.put(crop.getKey(), new int[] {top - BATCH_PADDING / 2, top + image.getHeight() + BATCH_PADDING / 2});
+            top += image.getHeight() + BATCH_PADDING;
+        }
+        
+        dumpDebugImage(composite, debugPath);
+        List<OCREngine.Word> words = recognizeWords(composite, config);
+        if (words == null) {
+            return null;
+        }
+        
+        Map<String, StringBuilder> texts = new LinkedHashMap<>();
+        Map<String, Integer> lastLines = new HashMap<>();
+        for (String name : regions.keySet()) {
+            texts.put(name, new StringBuilder());
+        }
+        for (OCREngine.Word word : words) {
+            int centerY = word.box.y + word.box.height / 2;
+            for (Map.Entry<String, int[]> band : bands.entrySet()) {
+                if (centerY >= band.getValue()[0] && centerY < band.getValue()[1]) {
+                    StringBuilder text = texts.get(band.getKey());
+                    Integer lastLine = lastLines.put(band.getKey(), word.line);
+                    if (lastLine != null) {
+                        text.append(lastLine == word.line ? " " : "\n");
+                    }
+                    text.append(word.text);
+                    break;
+                }
+            }
+        }
+        
+        Map<String, String> results = new LinkedHashMap<>();
+        for (Map.Entry<String, StringBuilder> text : texts.entrySet()) {
+            results.put(text.getKey(), text.getValue().toString());
+        }
+        System.out.println("📦 [OCR] Batch read " + results.size() + " regions in one pass: " + results);
+        return results;
+    }
+    
+    /**
+     * Read several timer regions of one frame. The glyph recognizer handles
+     * what it can and the rest share one batched OCR pass. A region the pass
+     * misses, or the only one left, goes through performTimeOCR under its own
+     * name so it keeps the result cache and config history. Maps each region
+     * to its parsed HH:MM:SS, or null where no valid time was read.
+     */
+    public static Map<String, String> performBatchTimeOCR(ScreenFrame frame, Map<String, Rectangle> regions,
+                                                          String debugPath, int instanceIndex) {
+        Map<String, String> times = new LinkedHashMap<>();
+        Map<String, BufferedImage> crops = new LinkedHashMap<>();
+        Map<String, Rectangle> remaining = new LinkedHashMap<>();
+        for (Map.Entry<String, Rectangle> region : regions.entrySet()) {
+            Rectangle bounds = region.getValue();
+            BufferedImage crop = cropRegion(frame, bounds.x, bounds.y, bounds.width, bounds.height);
+            times.put(region.getKey(), null);
+            if (crop == null) {
+                continue;
+            }
+            TimerGlyphRecognizer.Result glyphResult = TimerGlyphRecognizer.recognize(crop);
+            if (glyphResult.isConfident()) {
+                times.put(region.getKey(), glyphResult.time);
+            } else {
+                crops.put(region.getKey(), crop);
+                remaining.put(region.getKey(), bounds);
+            }
+        }
+        
+        if (remaining.size() > 1) {
+            Map<String, String> texts = performBatchOCR(frame, remaining, BATCH_TIME_CONFIG, debugPath);
+            if (texts != null) {
+                for (Map.Entry<String, String> text : texts.entrySet()) {
+                    String parsed = TimeUtils.parseTimeFromText(text.getValue());
+                    if (parsed != null && TimeUtils.isValidMarchTime(parsed)) {
+                        times.put(text.getKey(), parsed);
+                        crops.remove(text.getKey());
+                    }
+                }
+            }
+        }
+        
+        for (Map.Entry<String, BufferedImage> crop : crops.entrySet()) {
+            String parsed = TimeUtils.parseTimeFromText(
+                performTimeOCR(crop.getValue(), debugPath, instanceIndex, crop.getKey()));
+            if (parsed != null && TimeUtils.isValidMarchTime(parsed)) {
+                times.put(crop.getKey(), parsed);
+            }
+        }
+        return times;
+    }
+    
+    /**
+     * Copy a crop into the gray canvas, inverted if needed so text is dark on a light background
+     */
+    private static void drawNormalized(BufferedImage image, byte[] canvas, int canvasWidth, int left, int top) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        int[] rgb = image.getRGB(0, 0, width, height, null, 0, width);
+        int[] gray = new int[rgb.length];
+        long total = 0;
+        for (int i = 0; i < rgb.length; i++) {
+            int pixel = rgb[i];
+            gray[i] = (((pixel >> 16) & 0xFF) * 299 + ((pixel >> 8) & 0xFF) * 587 + (pixel & 0xFF) * 114) / 1000;
+            total += gray[i];
+        }
+        // Text is the minority, so a dark average means light text on a dark background
+        boolean invert = total < 128L * rgb.length;
+        for (int y = 0; y < height; y++) {
+            int row = (top + y) * canvasWidth + left;
+            for (int x = 0; x < width; x++) {
+                int value = gray[y * width + x];
+                canvas[row + x] = (byte) (invert ? 255 - value : value);
             }
-            
-            int exitCode = process.waitFor();
-            String result = output.toString().trim();
-            
-            System.out.println("📊 [OCR] Time OCR result: '" + result + "' (exit code: " + exitCode + ")");
-            
-            return result;
-            
-        } catch (Exception e) {
-            System.err.println("❌ [OCR] Error running time-specific OCR: " + e.getMessage());
-            return BotUtils.runTesseractOCR(imagePath, instanceIndex);
         }
     }
     
+    /**
+     * March queue OCR on an in-memory, already enhanced panel, cached like performTimeOCR
+     */
+    public static String performMarchQueueOCR(BufferedImage panelImage, String debugPath, int instanceIndex) {
+        return cachedRead(panelImage, debugPath, "march_panel", MARCH_QUEUE_CONFIGS,
+            OCRUtils::performMarchQueueOCR);
+    }
+    
+    /**
+     * Look the image up in the OCR result cache; on a miss run ocr on the
+     * image itself and cache the result unless it is null or blank. Nothing
+     * touches disk unless debug dumps are enabled and this read is sampled.
+     */
+    static String cachedRead(BufferedImage image, String debugPath, String region, OCREngine.Config[] configs,
+                             Function<BufferedImage, String> ocr) {
+        return cachedRead(image, debugPath, region, configs, ocr, text -> true);
+    }
+    
+    /**
+     * cachedRead that only caches results passing cacheable, so a misread
+     * is retried on the next frame instead of being served from the cache
+     */
+    static String cachedRead(BufferedImage image, String debugPath, String region, OCREngine.Config[] configs,
+                             Function<BufferedImage, String> ocr, Predicate<String> cacheable) {
+        String key = OCRResultCache.keyFor(image, region, configs);
+        String cached = OCRResultCache.get(key);
+        if (cached != null) {
+            System.out.println("♻️ [OCR] Cache hit for " + region + ": '" + cached.replace("\n", " | ") + "'");
+            return cached;
+        }
+        
+        dumpDebugImage(image, debugPath);
+        String result = ocr.apply(image);
+        if (result != null && !result.trim().isEmpty() && cacheable.test(result)) {
+            OCRResultCache.put(key, result);
+        }
+        return result;
+    }
+    
+    /**
+     * Turn all learning from reads on or off: config win history, timer glyphs
+     * and the background jobs that feed them. While off nothing is recorded or
+     * written, so every read sees the state loaded at startup.
+     */
+    public static void setLearningEnabled(boolean enabled) {
+        learningEnabled = enabled;
+        OCRConfigStats.setFrozen(!enabled);
+        TimerGlyphRecognizer.setFrozen(!enabled);
+    }
+    
+    /**
+     * Save a sample of OCR inputs for debugging. Off by default; enable with
+     * -Docr.debugDumpRate=0.1 (fraction of reads) or setDebugDumpRate.
+     */
+    public static void setDebugDumpRate(double rate) {
+        debugDumpRate = Math.max(0, Math.min(1, rate));
+    }
+    
+    static void dumpDebugImage(BufferedImage image, String path) {
+        if (path != null && debugDumpRate > 0 && ThreadLocalRandom.current().nextDouble() < debugDumpRate) {
+            writeImage(image, path);
+        }
+    }
+    
+    private static double readDebugDumpRate() {
+        try {
+            return Math.max(0, Math.min(1, Double.parseDouble(System.getProperty("ocr.debugDumpRate", "0"))));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+    
+    /**
+     * Crop a region from a frame, clamped to the image bounds.
+     * Returns null if the frame has no image or the region is empty.
+     */
+    public static BufferedImage cropRegion(ScreenFrame frame, int x, int y, int width, int height) {
+        BufferedImage sourceImage = frame.image();
+        if (sourceImage == null) {
+            System.err.println("❌ [OCR] Could not load source image: " + frame.describe());
+            return null;
+        }
+        
+        // Bounds checking
+        x = Math.max(0, Math.min(x, sourceImage.getWidth() - width));
+        y = Math.max(0, Math.min(y, sourceImage.getHeight() - height));
+        width = Math.min(width, sourceImage.getWidth() - x);
+        height = Math.min(height, sourceImage.getHeight() - y);
+        
+        if (width <= 0 || height <= 0) {
+            System.err.println("❌ [OCR] Invalid region bounds");
+            return null;
+        }
+        
+        System.out.println("🎯 [OCR] Extracting region: x=" + x + ", y=" + y + ", w=" + width + ", h=" + height);
+        return sourceImage.getSubimage(x, y, width, height);
+    }
+    
     /**
      * Extract region from image for better OCR targeting
      */
     public static boolean extractImageRegion(String sourcePath, String outputPath, int x, int y, int width, int height) {
+        try (ScreenFrame frame = ScreenFrame.fromFile(sourcePath)) {
+            return extractImageRegion(frame, outputPath, x, y, width, height);
+        }
+    }
+    
+    /**
+     * Extract region from an already decoded frame
+     */
+    public static boolean extractImageRegion(ScreenFrame frame, String outputPath, int x, int y, int width, int height) {
+        BufferedImage regionImage = cropRegion(frame, x, y, width, height);
+        return regionImage != null && writeImage(regionImage, outputPath);
+    }
+    
+    /**
+     * Save an image as PNG, creating parent directories as needed
+     */
+    static boolean writeImage(BufferedImage image, String outputPath) {
         try {
-            BufferedImage sourceImage = ImageIO.read(new File(sourcePath));
-            if (sourceImage == null) {
-                System.err.println("❌ [OCR] Could not load source image: " + sourcePath);
-                return false;
-            }
-            
-            // Bounds checking
-            x = Math.max(0, Math.min(x, sourceImage.getWidth() - width));
-            y = Math.max(0, Math.min(y, sourceImage.getHeight() - height));
-            width = Math.min(width, sourceImage.getWidth() - x);
-            height = Math.min(height, sourceImage.getHeight() - y);
-            
-            if (width <= 0 || height <= 0) {
-                System.err.println("❌ [OCR] Invalid region bounds");
-                return false;
-            }
-            
-            System.out.println("🎯 [OCR] Extracting region: x=" + x + ", y=" + y + ", w=" + width + ", h=" + height);
-            
-            BufferedImage regionImage = sourceImage.getSubimage(x, y, width, height);
-            
-            // Save the extracted region
             File outputFile = new File(outputPath);
             File parentDir = outputFile.getParentFile();
             if (parentDir != null && !parentDir.exists()) {
                 parentDir.mkdirs();
             }
             
-            if (ImageIO.write(regionImage, "PNG", outputFile)) {
+            if (ImageIO.write(image, "PNG", outputFile)) {
                 System.out.println("✅ [OCR] Extracted region: " + outputPath + " (" + outputFile.length() + " bytes)");
                 return true;
             } else {
@@ -225,20 +820,19 @@ public class OCRUtils {
             
             BufferedImage enhanced = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
             
-            for (int y = 0; y < height; y++) {
-                for (int x = 0; x < width; x++) {
-                    java.awt.Color pixel = new java.awt.Color(original.getRGB(x, y));
-                    
-                    // Convert to grayscale
-                    int gray = (int) (pixel.getRed() * 0.299 + pixel.getGreen() * 0.587 + pixel.getBlue() * 0.114);
-                    
-                    // High contrast threshold
-                    int threshold = 128;
-                    int newGray = (gray > threshold) ? 255 : 0;
-                    
-                    java.awt.Color newColor = new java.awt.Color(newGray, newGray, newGray);
-                    enhanced.setRGB(x, y, newColor.getRGB());
-                }
+            // Read the source straight into the output raster and threshold in place
+            int[] pixels = ((DataBufferInt) enhanced.getRaster().getDataBuffer()).getData();
+            original.getRGB(0, 0, width, height, pixels, 0, width);
+            
+            int threshold = 128;
+            for (int i = 0; i < pixels.length; i++) {
+                int rgb = pixels[i];
+                
+                // Convert to grayscale
+                int gray = (int) (((rgb >> 16) & 0xFF) * 0.299 + ((rgb >> 8) & 0xFF) * 0.587 + (rgb & 0xFF) * 0.114);
+                
+                // High contrast threshold
+                pixels[i] = (gray > threshold) ? 0xFFFFFF : 0;
             }
             
             return enhanced;
@@ -251,58 +845,6 @@ public class OCRUtils {
     
     // === PRIVATE HELPER METHODS ===
     
-    private static String runTesseractWithConfig(String imagePath, int instanceIndex, String config) {
-        try {
-            String tesseractPath = "C:\\Program Files\\Tesseract-OCR\\tesseract.exe";
-            java.io.File tesseractExe = new java.io.File(tesseractPath);
-            
-            if (!tesseractExe.exists()) {
-                System.err.println("❌ [OCR] Tesseract not found, using fallback");
-                return BotUtils.runTesseractOCR(imagePath, instanceIndex);
-            }
-            
-            String[] configArgs = config.split(" ");
-            
-            java.util.List<String> command = new java.util.ArrayList<>();
-            command.add(tesseractPath);
-            command.add(imagePath);
-            command.add("stdout");
-            
-            for (String arg : configArgs) {
-                if (!arg.trim().isEmpty()) {
-                    command.add(arg.trim());
-                }
-            }
-            
-            ProcessBuilder pb = new ProcessBuilder(command);
-            Process process = pb.start();
-            
-            StringBuilder output = new StringBuilder();
-            try (java.io.BufferedReader reader = new java.io.BufferedReader(new java.io.InputStreamReader(process.getInputStream()))) {
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    output.append(line).append("\n");
-                }
-            }
-            
-            process.waitFor();
-            return output.toString().trim();
-            
-        } catch (Exception e) {
-            System.err.println("❌ [OCR] Error running Tesseract with config: " + e.getMessage());
-            return BotUtils.runTesseractOCR(imagePath, instanceIndex);
-        }
-    }
-    
-    private static String extractPSM(String config) {
-        Pattern pattern = Pattern.compile("--psm (\\d+)");
-        Matcher matcher = pattern.matcher(config);
-        if (matcher.find()) {
-            return matcher.group(1);
-        }
-        return "?";
-    }
-    
     private static int calculateGeneralOCRScore(String ocrResult) {
         if (ocrResult == null || ocrResult.trim().isEmpty()) {
             return 0;
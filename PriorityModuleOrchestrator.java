@@ -1,6 +1,5 @@
 package newgame;
 
-import javax.swing.Timer;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -24,6 +23,46 @@ public class PriorityModuleOrchestrator {
         SKIPPED
     }
     
+    // What a module contends for; modules may only overlap if they share none
+    public enum Resource {
+        SCREEN,    // Reads the emulator screen
+        INPUT,     // Taps, swipes or types on the emulator
+        HOST_CPU   // Host-side work that never touches the device
+    }
+    
+    // Resource needs and rough cost/benefit of a module, for PARALLEL and SMART scheduling
+    static class ModuleProfile {
+        final Set<Resource> resources;
+        final int estimatedSeconds;
+        final int benefit;       // Relative value of running it during a wake window
+        final boolean barrier;   // Runs alone and everything after it waits for it
+        
+        ModuleProfile(Set<Resource> resources, int estimatedSeconds, int benefit, boolean barrier) {
+            this.resources = resources;
+            this.estimatedSeconds = estimatedSeconds;
+            this.benefit = benefit;
+            this.barrier = barrier;
+        }
+    }
+    
+    private static final Map<String, ModuleProfile> MODULE_PROFILES = new HashMap<>();
+    // Unknown modules are assumed to need everything
+    private static final ModuleProfile DEFAULT_PROFILE = new ModuleProfile(EnumSet.allOf(Resource.class), 30, 1, false);
+    private static final double DURATION_SMOOTHING = 0.3;
+    
+    static {
+        // Every game module drives the device UI; the game has to be up before any of them
+        MODULE_PROFILES.put("Auto Start Game", new ModuleProfile(EnumSet.of(Resource.SCREEN, Resource.INPUT), 60, 10, true));
+        MODULE_PROFILES.put("Auto Gather Resources", new ModuleProfile(EnumSet.of(Resource.SCREEN, Resource.INPUT), 5, 8, false));
+        MODULE_PROFILES.put("Auto Building & Upgrades", new ModuleProfile(EnumSet.of(Resource.SCREEN, Resource.INPUT), 2, 5, false));
+        MODULE_PROFILES.put("Auto Troop Training", new ModuleProfile(EnumSet.of(Resource.SCREEN, Resource.INPUT), 3, 4, false));
+        MODULE_PROFILES.put("Auto Daily Tasks", new ModuleProfile(EnumSet.of(Resource.SCREEN, Resource.INPUT), 4, 4, false));
+        MODULE_PROFILES.put("Auto Gift Claim", new ModuleProfile(EnumSet.of(Resource.SCREEN, Resource.INPUT), 3, 3, false));
+    }
+    
+    // Smoothed measured run time per module, replacing the static estimate once seen
+    private static final Map<String, Double> observedSeconds = new ConcurrentHashMap<>();
+    
     private static final Map<Integer, PriorityModuleChain> activeChains = new ConcurrentHashMap<>();
     
     public static void startModuleChain(MemuInstance instance) {
@@ -102,6 +141,35 @@ public class PriorityModuleOrchestrator {
         return "No active chain";
     }
     
+    static ModuleProfile profileFor(String moduleName) {
+        return MODULE_PROFILES.getOrDefault(moduleName, DEFAULT_PROFILE);
+    }
+    
+    /**
+     * Expected run time of a module: measured if it has run before, declared otherwise
+     */
+    static double estimatedSeconds(String moduleName) {
+        Double observed = observedSeconds.get(moduleName);
+        return observed != null ? observed : profileFor(moduleName).estimatedSeconds;
+    }
+    
+    private static void recordDuration(String moduleName, double seconds) {
+        observedSeconds.merge(moduleName, seconds,
+            (previous, latest) -> previous + DURATION_SMOOTHING * (latest - previous));
+    }
+    
+    /**
+     * SMART order: barriers first, then the most benefit per second of
+     * device time. modules arrives in the configured priority order and the
+     * sort is stable, so priority breaks ties between equal ratios.
+     */
+    static List<String> orderByCostBenefit(List<String> modules) {
+        List<String> ordered = new ArrayList<>(modules);
+        ordered.sort(Comparator.comparing((String module) -> !profileFor(module).barrier)
+            .thenComparing(module -> -profileFor(module).benefit / Math.max(1.0, estimatedSeconds(module))));
+        return ordered;
+    }
+    
     // Load execution settings from module configuration
     private static ExecutionSettings loadExecutionSettings(Map<String, ModuleState<?>> modules) {
         ModuleState<?> executionModule = modules.get("Module Execution Settings");
@@ -195,16 +263,39 @@ public class PriorityModuleOrchestrator {
         }
     }
     
+    // Immutable view of a chain's progress for the status column
+    private static class StatusSnapshot {
+        final String current;
+        final int started;
+        final int completed;
+        final int failed;
+        final boolean active;
+        
+        StatusSnapshot(String current, int started, int completed, int failed, boolean active) {
+            this.current = current;
+            this.started = started;
+            this.completed = completed;
+            this.failed = failed;
+            this.active = active;
+        }
+    }
+    
     // Enhanced module chain with priority support
     private static class PriorityModuleChain {
         private final MemuInstance instance;
         private final List<String> moduleQueue;
         private final ExecutionSettings settings;
         private final Map<String, ModuleStatus> moduleStatuses;
-        private int currentModuleIndex = 0;
-        private boolean running = false;
-        private String currentStatus = "Initializing";
-        private long chainStartTime;
+        private final List<String> pendingModules = new ArrayList<>();
+        private final Map<String, Long> runningModules = new LinkedHashMap<>();   // module -> start time
+        private final Set<Resource> heldResources = EnumSet.noneOf(Resource.class);
+        private int startedCount = 0;
+        private boolean dispatchScheduled = false;
+        private volatile boolean running = false;
+        private volatile String currentStatus = "Initializing";
+        private volatile long chainStartTime;
+        // Published after every change so the UI can read status without the chain lock
+        private volatile StatusSnapshot statusSnapshot = new StatusSnapshot("", 0, 0, 0, false);
         
         public PriorityModuleChain(MemuInstance instance, List<String> modules, ExecutionSettings settings) {
             this.instance = instance;
@@ -218,19 +309,29 @@ public class PriorityModuleOrchestrator {
             }
         }
         
-        public void start() {
+        public synchronized void start() {
             running = true;
-            currentModuleIndex = 0;
+            startedCount = 0;
             chainStartTime = System.currentTimeMillis();
             currentStatus = "Starting module chain";
             
+            pendingModules.clear();
+            if (settings.executionMode == ExecutionMode.SMART) {
+                pendingModules.addAll(orderByCostBenefit(moduleQueue));
+                Main.addToConsole("🧠 " + instance.name + " - SMART order: " + pendingModules);
+            } else {
+                pendingModules.addAll(moduleQueue);
+            }
+            
             Main.addToConsole("🎯 " + instance.name + " - Executing " + moduleQueue.size() + " modules in " + 
                              settings.executionMode + " mode");
             
-            executeNextModule();
+            publishStatus();
+            // Module tasks are built off the EDT
+            ModuleChainExecutor.execute(this::dispatchModules);
         }
         
-        public void stop() {
+        public synchronized void stop() {
             running = false;
             currentStatus = "Stopped by user";
             
@@ -243,18 +344,32 @@ public class PriorityModuleOrchestrator {
             }
             
             // Mark remaining modules as skipped
-            for (int i = currentModuleIndex; i < moduleQueue.size(); i++) {
-                String moduleName = moduleQueue.get(i);
-                if (moduleStatuses.get(moduleName) == ModuleStatus.PENDING) {
-                    moduleStatuses.put(moduleName, ModuleStatus.SKIPPED);
-                }
+            for (String moduleName : pendingModules) {
+                moduleStatuses.put(moduleName, ModuleStatus.SKIPPED);
             }
+            pendingModules.clear();
+            publishStatus();
         }
         
+        /**
+         * Called from the EDT's status refresh, so it only reads the published snapshot
+         */
         public String getDetailedStatus() {
             if (!running) return currentStatus;
             
+            StatusSnapshot snapshot = statusSnapshot;
             long elapsed = (System.currentTimeMillis() - chainStartTime) / 1000;
+            
+            if (snapshot.active) {
+                return String.format("Running %d/%d modules: %s (Elapsed: %ds, Completed: %d, Failed: %d)", 
+                    snapshot.started, moduleQueue.size(), snapshot.current, elapsed, snapshot.completed, snapshot.failed);
+            } else {
+                return String.format("Chain completed in %ds (Completed: %d, Failed: %d)", 
+                    elapsed, snapshot.completed, snapshot.failed);
+            }
+        }
+        
+        private synchronized void publishStatus() {
             int completed = 0;
             int failed = 0;
             
@@ -263,62 +378,104 @@ public class PriorityModuleOrchestrator {
                 if (status == ModuleStatus.FAILED) failed++;
             }
             
-            if (currentModuleIndex < moduleQueue.size()) {
-                String currentModule = moduleQueue.get(currentModuleIndex);
-                return String.format("Running %d/%d modules: %s (Elapsed: %ds, Completed: %d, Failed: %d)", 
-                    currentModuleIndex + 1, moduleQueue.size(), currentModule, elapsed, completed, failed);
-            } else {
-                return String.format("Chain completed in %ds (Completed: %d, Failed: %d)", 
-                    elapsed, completed, failed);
-            }
+            String current = runningModules.isEmpty() ? "waiting" : String.join(", ", runningModules.keySet());
+            statusSnapshot = new StatusSnapshot(current, startedCount, completed, failed,
+                !runningModules.isEmpty() || !pendingModules.isEmpty());
         }
         
-        private void executeNextModule() {
-            if (!running || currentModuleIndex >= moduleQueue.size()) {
-                // Chain completed
-                currentStatus = "Chain completed";
-                running = false;
-                
-                long elapsed = (System.currentTimeMillis() - chainStartTime) / 1000;
-                int completed = (int) moduleStatuses.values().stream().mapToLong(s -> s == ModuleStatus.COMPLETED ? 1 : 0).sum();
-                int failed = (int) moduleStatuses.values().stream().mapToLong(s -> s == ModuleStatus.FAILED ? 1 : 0).sum();
-                
-                Main.addToConsole("✅ " + instance.name + " - Module chain completed in " + elapsed + 
-                                "s (Completed: " + completed + ", Failed: " + failed + ")");
-                
-                // Handle retry if enabled
-                if (settings.retryFailedModules && failed > 0) {
-                    scheduleRetryForFailedModules();
-                }
-                
+        /**
+         * Start every pending module that can run now. SEQUENTIAL runs one at a
+         * time. PARALLEL and SMART start a module when its resources are free
+         * and don't overlap any module ahead of it that is still waiting, so
+         * contending modules keep their order. Barriers run alone.
+         */
+        private synchronized void dispatchModules() {
+            dispatchScheduled = false;
+            if (!running) {
+                return;
+            }
+            if (pendingModules.isEmpty() && runningModules.isEmpty()) {
+                completeChain();
                 return;
             }
+            for (String runningModule : runningModules.keySet()) {
+                if (profileFor(runningModule).barrier) {
+                    return;
+                }
+            }
+            
+            List<String> toStart = new ArrayList<>();
+            Set<Resource> claimed = EnumSet.noneOf(Resource.class);
+            claimed.addAll(heldResources);
+            for (String moduleName : pendingModules) {
+                ModuleProfile profile = profileFor(moduleName);
+                if (settings.executionMode == ExecutionMode.SEQUENTIAL || profile.barrier) {
+                    if (runningModules.isEmpty() && toStart.isEmpty()) {
+                        toStart.add(moduleName);
+                    }
+                    break;
+                }
+                if (Collections.disjoint(profile.resources, claimed)) {
+                    toStart.add(moduleName);
+                }
+                claimed.addAll(profile.resources);
+            }
             
-            String moduleName = moduleQueue.get(currentModuleIndex);
-            currentStatus = "Executing: " + moduleName;
-            moduleStatuses.put(moduleName, ModuleStatus.RUNNING);
+            // Reserve everything first so a module that finishes synchronously can't double-book
+            List<Integer> positions = new ArrayList<>();
+            for (String moduleName : toStart) {
+                pendingModules.remove(moduleName);
+                runningModules.put(moduleName, System.currentTimeMillis());
+                heldResources.addAll(profileFor(moduleName).resources);
+                moduleStatuses.put(moduleName, ModuleStatus.RUNNING);
+                positions.add(++startedCount);
+            }
+            if (toStart.size() > 1) {
+                Main.addToConsole("⏩ " + instance.name + " - Running in parallel: " + toStart);
+            }
+            publishStatus();
             
-            try {
-                executeModule(moduleName);
-            } catch (Exception e) {
-                System.err.println("❌ Error executing module " + moduleName + ": " + e.getMessage());
-                Main.addToConsole("❌ " + instance.name + " - Module " + moduleName + " failed: " + e.getMessage());
-                
-                moduleStatuses.put(moduleName, ModuleStatus.FAILED);
-                moveToNextModule();
+            for (int i = 0; i < toStart.size(); i++) {
+                String moduleName = toStart.get(i);
+                currentStatus = "Executing: " + moduleName;
+                try {
+                    executeModule(moduleName, positions.get(i));
+                } catch (Exception e) {
+                    System.err.println("❌ Error executing module " + moduleName + ": " + e.getMessage());
+                    Main.addToConsole("❌ " + instance.name + " - Module " + moduleName + " failed: " + e.getMessage());
+                    finishModule(moduleName, ModuleStatus.FAILED);
+                }
             }
         }
         
-        private void executeModule(String moduleName) throws Exception {
-            Main.addToConsole("▶️ " + instance.name + " - [" + (currentModuleIndex + 1) + "/" + 
+        private void completeChain() {
+            // Chain completed
+            currentStatus = "Chain completed";
+            running = false;
+            publishStatus();
+            
+            long elapsed = (System.currentTimeMillis() - chainStartTime) / 1000;
+            int completed = (int) moduleStatuses.values().stream().mapToLong(s -> s == ModuleStatus.COMPLETED ? 1 : 0).sum();
+            int failed = (int) moduleStatuses.values().stream().mapToLong(s -> s == ModuleStatus.FAILED ? 1 : 0).sum();
+            
+            Main.addToConsole("✅ " + instance.name + " - Module chain completed in " + elapsed + 
+                            "s (Completed: " + completed + ", Failed: " + failed + ")");
+            
+            // Handle retry if enabled
+            if (settings.retryFailedModules && failed > 0) {
+                scheduleRetryForFailedModules();
+            }
+        }
+        
+        private void executeModule(String moduleName, int position) throws Exception {
+            Main.addToConsole("▶️ " + instance.name + " - [" + position + "/" + 
                              moduleQueue.size() + "] Executing: " + moduleName);
             
             switch (moduleName) {
                 case "Auto Start Game":
                     AutoStartGameTask autoStartTask = new AutoStartGameTask(instance, 10, () -> {
                         Main.addToConsole("✅ " + instance.name + " - Auto Start Game completed");
-                        moduleStatuses.put(moduleName, ModuleStatus.COMPLETED);
-                        moveToNextModule();
+                        finishModule(moduleName, ModuleStatus.COMPLETED);
                     });
                     autoStartTask.execute();
                     break;
@@ -326,85 +483,86 @@ public class PriorityModuleOrchestrator {
                 case "Auto Gather Resources":
                     // This will handle its own completion and hibernation
                     AutoGatherResourcesTask gatherTask = new AutoGatherResourcesTask(instance);
-                    gatherTask.execute();
                     
-                    // For gather resources, mark as completed after starting
-                    Timer gatherStartTimer = new Timer(5000, e -> {
-                        moduleStatuses.put(moduleName, ModuleStatus.COMPLETED);
-                        moveToNextModule();
-                    });
-                    gatherStartTimer.setRepeats(false);
-                    gatherStartTimer.start();
+                    // Keep SCREEN and INPUT until the task parks with WakeScheduler or stops
+                    gatherTask.setOnHandOff(() -> finishModule(moduleName, ModuleStatus.COMPLETED));
+                    gatherTask.execute();
                     break;
                     
                 case "Auto Gift Claim":
                     Main.addToConsole("🎁 " + instance.name + " - Starting Auto Gift Claim");
-                    Timer giftTimer = new Timer(3000, e -> {
+                    ModuleChainExecutor.schedule(() -> {
                         Main.addToConsole("✅ " + instance.name + " - Auto Gift Claim completed");
-                        moduleStatuses.put(moduleName, ModuleStatus.COMPLETED);
-                        moveToNextModule();
-                    });
-                    giftTimer.setRepeats(false);
-                    giftTimer.start();
+                        finishModule(moduleName, ModuleStatus.COMPLETED);
+                    }, 3000);
                     break;
                     
                 case "Auto Building & Upgrades":
                     Main.addToConsole("🏗️ " + instance.name + " - Starting Auto Building & Upgrades");
-                    Timer buildingTimer = new Timer(2000, e -> {
+                    ModuleChainExecutor.schedule(() -> {
                         Main.addToConsole("✅ " + instance.name + " - Auto Building & Upgrades completed");
-                        moduleStatuses.put(moduleName, ModuleStatus.COMPLETED);
-                        moveToNextModule();
-                    });
-                    buildingTimer.setRepeats(false);
-                    buildingTimer.start();
+                        finishModule(moduleName, ModuleStatus.COMPLETED);
+                    }, 2000);
                     break;
                     
                 case "Auto Troop Training":
                     Main.addToConsole("⚔️ " + instance.name + " - Starting Auto Troop Training");
-                    Timer troopTimer = new Timer(2500, e -> {
+                    ModuleChainExecutor.schedule(() -> {
                         Main.addToConsole("✅ " + instance.name + " - Auto Troop Training completed");
-                        moduleStatuses.put(moduleName, ModuleStatus.COMPLETED);
-                        moveToNextModule();
-                    });
-                    troopTimer.setRepeats(false);
-                    troopTimer.start();
+                        finishModule(moduleName, ModuleStatus.COMPLETED);
+                    }, 2500);
                     break;
                     
                 case "Auto Daily Tasks":
                     Main.addToConsole("📋 " + instance.name + " - Starting Auto Daily Tasks");
-                    Timer dailyTimer = new Timer(4000, e -> {
+                    ModuleChainExecutor.schedule(() -> {
                         Main.addToConsole("✅ " + instance.name + " - Auto Daily Tasks completed");
-                        moduleStatuses.put(moduleName, ModuleStatus.COMPLETED);
-                        moveToNextModule();
-                    });
-                    dailyTimer.setRepeats(false);
-                    dailyTimer.start();
+                        finishModule(moduleName, ModuleStatus.COMPLETED);
+                    }, 4000);
                     break;
                     
                 default:
                     Main.addToConsole("⚠️ " + instance.name + " - Unknown module: " + moduleName);
-                    moduleStatuses.put(moduleName, ModuleStatus.FAILED);
-                    moveToNextModule();
+                    finishModule(moduleName, ModuleStatus.FAILED);
                     break;
             }
         }
         
-        private void moveToNextModule() {
-            currentModuleIndex++;
+        /**
+         * Module callbacks arrive on the EDT (SwingWorker.done) or a task thread;
+         * hand them to the chain executor
+         */
+        private void finishModule(String moduleName, ModuleStatus status) {
+            ModuleChainExecutor.execute(() -> onModuleFinished(moduleName, status));
+        }
+        
+        /**
+         * Release a finished module's resources and dispatch whatever can run next
+         */
+        private synchronized void onModuleFinished(String moduleName, ModuleStatus status) {
+            Long startTime = runningModules.remove(moduleName);
+            if (startTime == null) {
+                return;
+            }
+            heldResources.removeAll(profileFor(moduleName).resources);
+            moduleStatuses.put(moduleName, status);
+            if (status == ModuleStatus.COMPLETED) {
+                recordDuration(moduleName, (System.currentTimeMillis() - startTime) / 1000.0);
+            }
+            publishStatus();
             
-            if (running) {
+            if (running && !dispatchScheduled) {
                 // Apply delay between modules
                 int delay = settings.delayBetweenModules * 1000;
                 
-                if (delay > 0 && currentModuleIndex < moduleQueue.size()) {
+                if (delay > 0 && !pendingModules.isEmpty()) {
                     Main.addToConsole("⏸️ " + instance.name + " - Waiting " + settings.delayBetweenModules + 
                                     "s before next module");
                     
-                    Timer nextModuleTimer = new Timer(delay, e -> executeNextModule());
-                    nextModuleTimer.setRepeats(false);
-                    nextModuleTimer.start();
+                    dispatchScheduled = true;
+                    ModuleChainExecutor.schedule(this::dispatchModules, delay);
                 } else {
-                    executeNextModule();
+                    dispatchModules();
                 }
             }
         }
@@ -421,7 +579,7 @@ public class PriorityModuleOrchestrator {
                 Main.addToConsole("🔄 " + instance.name + " - Scheduling retry for " + failedModules.size() + 
                                 " failed module(s) in 30 seconds");
                 
-                Timer retryTimer = new Timer(30000, e -> {
+                ModuleChainExecutor.schedule(() -> {
                     Main.addToConsole("🔄 " + instance.name + " - Retrying failed modules: " + failedModules);
                     
                     // Reset failed modules to pending and restart chain
@@ -433,9 +591,7 @@ public class PriorityModuleOrchestrator {
                     PriorityModuleChain retryChain = new PriorityModuleChain(instance, failedModules, settings);
                     activeChains.put(instance.index, retryChain);
                     retryChain.start();
-                });
-                retryTimer.setRepeats(false);
-                retryTimer.start();
+                }, 30000);
             }
         }
         
@@ -1,6 +1,9 @@
 package newgame;
 
 import java.awt.Point;
+import java.awt.Rectangle;
+import java.util.Collections;
+import java.util.Map;
 
 /**
  * SPEED OPTIMIZED: Handles the UI interactions for starting resource gathering marches
@@ -8,6 +11,10 @@ import java.awt.Point;
  * FIXED: Simple popup dismissal with proper timing
  */
 public class ResourceGatheringController {
+    // Deploy screen timers; more fields can join the same OCR pass here
+    private static final Map<String, Rectangle> DEPLOY_TIME_REGIONS =
+        Collections.singletonMap("deploy_time", new Rectangle(335, 713, 70, 16));
+    
     private final MemuInstance instance;
     private final MarchViewNavigator navigator;
     private String lastExtractedTime = "02:30:00";
@@ -52,7 +59,7 @@ public class ResourceGatheringController {
             System.out.println("🔄 Starting SUBSEQUENT march for " + resourceType + " on queue " + queueNumber + " (FAST MODE)");
             System.out.println("✅ We remain in WORLD view after previous deploy - no navigation needed");
             
-            Thread.sleep(1500); // SPEED: 3s → 1.5s
+            BotUtils.waitForStable(instance.index, 1500);
             
             return executeGatheringSequenceFast(resourceType, queueNumber);
             
@@ -116,9 +123,8 @@ public class ResourceGatheringController {
             Point searchButton = new Point(31, 535);
             System.out.println("✅ Using known working search button position: " + searchButton);
             
-            if (BotUtils.clickMenu(instance.index, searchButton)) {
+            if (BotUtils.clickAndWait(instance.index, searchButton, 1500)) {
                 System.out.println("✅ Successfully clicked search button at " + searchButton);
-                Thread.sleep(1500); // SPEED: 3s → 1.5s
                 
                 if (!dismissSearchPopupFast()) {
                     System.err.println("❌ Failed to dismiss search popup");
@@ -152,12 +158,9 @@ public class ResourceGatheringController {
             // Simple bottom left click
             Point dismissArea = new Point(50, 750);
             
-            if (BotUtils.clickMenu(instance.index, dismissArea)) {
+            // FIXED: Proper wait time for popup to close (up to 2500ms)
+            if (BotUtils.clickAndWait(instance.index, dismissArea, 2500)) {
                 System.out.println("✅ Clicked bottom left area to dismiss popup at " + dismissArea);
-                
-                // FIXED: Proper wait time for popup to close
-                Thread.sleep(2500); // Increased from 1000ms to 2500ms
-                
                 return true;
             } else {
                 System.err.println("❌ Failed to click bottom left area to dismiss popup");
@@ -177,22 +180,23 @@ public class ResourceGatheringController {
         try {
             System.out.println("🔍 Verifying we're on resource selection screen (FAST)...");
             
-            String verifyPath = "screenshots/verify_resource_screen_" + instance.index + ".png";
-            if (!BotUtils.takeScreenshot(instance.index, verifyPath)) {
-                return false;
-            }
-            
-            Point plusButton = BotUtils.findImageOnScreen(verifyPath, "plus_button.png", 0.5);
-            if (plusButton != null) {
-                System.out.println("✅ Found plus_button - we're on resource selection screen");
-                return true;
-            }
-            
-            Point breadIcon = BotUtils.findImageOnScreen(verifyPath, "bread_icon.png", 0.4);
-            Point woodIcon = BotUtils.findImageOnScreen(verifyPath, "wood_icon.png", 0.4);
-            if (breadIcon != null || woodIcon != null) {
-                System.out.println("✅ Found resource icons - we're on resource selection screen");
-                return true;
+            try (ScreenFrame frame = ScreenFrame.capture(instance.index)) {
+                if (frame == null) {
+                    return false;
+                }
+                
+                Point plusButton = BotUtils.findImageOnScreen(frame, "plus_button.png", 0.5);
+                if (plusButton != null) {
+                    System.out.println("✅ Found plus_button - we're on resource selection screen");
+                    return true;
+                }
+                
+                Point breadIcon = BotUtils.findImageOnScreen(frame, "bread_icon.png", 0.4);
+                Point woodIcon = BotUtils.findImageOnScreen(frame, "wood_icon.png", 0.4);
+                if (breadIcon != null || woodIcon != null) {
+                    System.out.println("✅ Found resource icons - we're on resource selection screen");
+                    return true;
+                }
             }
             
             System.err.println("❌ Could not verify resource selection screen");
@@ -214,9 +218,8 @@ public class ResourceGatheringController {
             Point startPoint = new Point(400, 570);
             Point endPoint = new Point(80, 570);
             
-            if (BotUtils.performADBSwipe(instance.index, startPoint, endPoint)) {
+            if (BotUtils.swipeAndWait(instance.index, startPoint, endPoint, 1000)) {
                 System.out.println("✅ Successfully scrolled from " + startPoint + " to " + endPoint);
-                Thread.sleep(1000); // SPEED: 2s → 1s
                 return true;
             } else {
                 System.err.println("❌ ADB swipe failed");
@@ -236,12 +239,6 @@ public class ResourceGatheringController {
         try {
             System.out.println("🎯 Selecting " + resourceType + " icon (FAST)...");
             
-            String screenPath = "screenshots/select_resource_" + instance.index + ".png";
-            if (!BotUtils.takeScreenshot(instance.index, screenPath)) {
-                System.err.println("Failed to take screenshot for resource selection");
-                return false;
-            }
-            
             String iconFile = getResourceIconFile(resourceType);
             if (iconFile == null) {
                 System.err.println("❌ Unknown resource type: " + resourceType);
@@ -251,20 +248,28 @@ public class ResourceGatheringController {
             // SPEED: Check fewer confidence levels, start with lower confidence
             double[] confidences = {0.6, 0.5, 0.4}; // SPEED: Reduced from 5 to 3 levels
             Point resourceIcon = null;
+            byte[] before = null;
             
-            for (double confidence : confidences) {
-                resourceIcon = BotUtils.findImageOnScreen(screenPath, iconFile, confidence);
-                if (resourceIcon != null) {
-                    System.out.println("✅ Found " + resourceType + " icon (" + iconFile + ") at " + resourceIcon + " with confidence " + confidence);
-                    break;
+            try (ScreenFrame frame = ScreenFrame.capture(instance.index)) {
+                if (frame == null) {
+                    System.err.println("Failed to take screenshot for resource selection");
+                    return false;
                 }
+                
+                for (double confidence : confidences) {
+                    resourceIcon = BotUtils.findImageOnScreen(frame, iconFile, confidence);
+                    if (resourceIcon != null) {
+                        System.out.println("✅ Found " + resourceType + " icon (" + iconFile + ") at " + resourceIcon + " with confidence " + confidence);
+                        break;
+                    }
+                }
+                before = resourceIcon != null ? BotUtils.screenSignature(frame) : null;
             }
             
             if (resourceIcon != null) {
                 Point clickPoint = new Point(resourceIcon.x + 40, resourceIcon.y + 35);
-                if (BotUtils.clickMenu(instance.index, clickPoint)) {
+                if (BotUtils.clickAndWait(instance.index, clickPoint, 1500, before)) {
                     System.out.println("✅ Successfully clicked " + resourceType + " icon at " + clickPoint);
-                    Thread.sleep(1500); // SPEED: 3s → 1.5s
                     return true;
                 }
             } else {
@@ -300,10 +305,10 @@ public class ResourceGatheringController {
         try {
             System.out.println("📈 Setting resource level to maximum (FAST)...");
             
-            String levelPath = "screenshots/level_max_" + instance.index + ".png";
-            BotUtils.takeScreenshot(instance.index, levelPath);
-            
-            Point plusButton = BotUtils.findImageOnScreen(levelPath, "plus_button.png", 0.7);
+            Point plusButton;
+            try (ScreenFrame frame = ScreenFrame.capture(instance.index)) {
+                plusButton = frame != null ? BotUtils.findImageOnScreen(frame, "plus_button.png", 0.7) : null;
+            }
             if (plusButton != null) {
                 // SPEED: Faster clicking with shorter delays
                 for (int i = 0; i < 8; i++) {
@@ -337,8 +342,6 @@ public class ResourceGatheringController {
                     continue;
                 }
                 
-                Thread.sleep(2000); // SPEED: 4s → 2s
-                
                 if (checkForGatherButtonFast()) {
                     System.out.println("✅ Found available resource at level " + level);
                     return true;
@@ -367,15 +370,15 @@ public class ResourceGatheringController {
      */
     private boolean clickSearchResourceButtonFast() {
         try {
-            String searchPath = "screenshots/searchrss_" + instance.index + ".png";
-            BotUtils.takeScreenshot(instance.index, searchPath);
-            
-            Point searchButton = BotUtils.findImageOnScreen(searchPath, "searchrss_button.png", 0.7);
+            Point searchButton;
+            try (ScreenFrame frame = ScreenFrame.capture(instance.index)) {
+                searchButton = frame != null ? BotUtils.findImageOnScreen(frame, "searchrss_button.png", 0.7) : null;
+            }
             if (searchButton == null) {
                 searchButton = new Point(237, 789);
             }
             
-            BotUtils.clickMenu(instance.index, searchButton);
+            BotUtils.clickAndWait(instance.index, searchButton, 2000);
             System.out.println("✅ Clicked search resource button (FAST)");
             return true;
             
@@ -390,14 +393,13 @@ public class ResourceGatheringController {
      */
     private boolean checkForGatherButtonFast() {
         try {
-            String gatherCheckPath = "screenshots/gather_check_" + instance.index + ".png";
-            BotUtils.takeScreenshot(instance.index, gatherCheckPath);
-            
-            Point gatherButton = BotUtils.findImageOnScreen(gatherCheckPath, "gather_button.png", 0.6);
+            Point gatherButton;
+            try (ScreenFrame frame = ScreenFrame.capture(instance.index)) {
+                gatherButton = frame != null ? BotUtils.findImageOnScreen(frame, "gather_button.png", 0.6) : null;
+            }
             if (gatherButton != null) {
                 System.out.println("✅ Found gather_button - resource available");
-                BotUtils.clickMenu(instance.index, gatherButton);
-                Thread.sleep(1500); // SPEED: 3s → 1.5s
+                BotUtils.clickAndWait(instance.index, gatherButton, 1500);
                 return true;
             } else {
                 System.out.println("❌ No gather_button found - resource not available");
@@ -415,10 +417,10 @@ public class ResourceGatheringController {
      */
     private boolean clickMinusButtonFast() {
         try {
-            String minusPath = "screenshots/minus_level_" + instance.index + ".png";
-            BotUtils.takeScreenshot(instance.index, minusPath);
-            
-            Point minusButton = BotUtils.findImageOnScreen(minusPath, "minus_button.png", 0.7);
+            Point minusButton;
+            try (ScreenFrame frame = ScreenFrame.capture(instance.index)) {
+                minusButton = frame != null ? BotUtils.findImageOnScreen(frame, "minus_button.png", 0.7) : null;
+            }
             if (minusButton != null) {
                 BotUtils.clickMenu(instance.index, minusButton);
                 Thread.sleep(300); // SPEED: 500ms → 300ms
@@ -442,13 +444,24 @@ public class ResourceGatheringController {
         try {
             System.out.println("🚀 Deploying march with time extraction (FAST)...");
             
-            String deployPath = "screenshots/deploy_screen_" + instance.index + ".png";
-            if (!BotUtils.takeScreenshot(instance.index, deployPath)) {
-                System.err.println("Failed to take deploy screen screenshot");
-                return false;
+            String extractedTime;
+            Point deployButton;
+            byte[] before;
+            try (ScreenFrame frame = ScreenFrame.capture(instance.index)) {
+                if (frame == null) {
+                    System.err.println("Failed to take deploy screen screenshot");
+                    return false;
+                }
+                
+                extractedTime = extractTimeFromDeployScreenFast(frame);
+                
+                deployButton = BotUtils.findImageOnScreen(frame, "deploy_button.png", 0.6);
+                if (deployButton == null) {
+                    deployButton = BotUtils.findImageOnScreen(frame, "deploy.png", 0.6);
+                }
+                before = deployButton != null ? BotUtils.screenSignature(frame) : null;
             }
             
-            String extractedTime = extractTimeFromDeployScreenFast(deployPath);
             if (extractedTime != null) {
                 System.out.println("⏱️ Successfully extracted march time: " + extractedTime);
             } else {
@@ -458,17 +471,11 @@ public class ResourceGatheringController {
             
             this.lastExtractedTime = extractedTime;
             
-            Point deployButton = BotUtils.findImageOnScreen(deployPath, "deploy_button.png", 0.6);
-            if (deployButton == null) {
-                deployButton = BotUtils.findImageOnScreen(deployPath, "deploy.png", 0.6);
-            }
-            
             if (deployButton != null) {
                 System.out.println("✅ Found deploy button at: " + deployButton);
                 
-                if (BotUtils.clickMenu(instance.index, deployButton)) {
+                if (BotUtils.clickAndWait(instance.index, deployButton, 1500, before)) {
                     System.out.println("✅ Clicked deploy button successfully");
-                    Thread.sleep(1500); // SPEED: 3s → 1.5s
                     
                     System.out.println("🎉 March deployed successfully with time: " + extractedTime + " (FAST MODE)");
                     System.out.println("📍 Remaining in world view after deploy");
@@ -491,26 +498,18 @@ public class ResourceGatheringController {
     /**
      * SPEED OPTIMIZED: Extract time from deploy screen
      */
-    private String extractTimeFromDeployScreenFast(String screenPath) {
+    private String extractTimeFromDeployScreenFast(ScreenFrame frame) {
         try {
             System.out.println("⏱️ Extracting march time from deploy screen (FAST)...");
             
             String timeRegionPath = "screenshots/precise_time_" + instance.index + ".png";
             
-            // Extract time region with optimized coordinates
-            if (OCRUtils.extractImageRegion(screenPath, timeRegionPath, 335, 713, 70, 16)) {
-                String timeText = OCRUtils.performTimeOCR(timeRegionPath, instance.index);
-                if (timeText != null && !timeText.trim().isEmpty()) {
-                    System.out.println("📋 OCR extracted text: '" + timeText + "'");
-                    
-                    String parsedTime = TimeUtils.parseTimeFromText(timeText);
-                    if (parsedTime != null && TimeUtils.isValidMarchTime(parsedTime)) {
-                        System.out.println("✅ Successfully parsed time: " + parsedTime + " from deploy screen (FAST)");
-                        return parsedTime;
-                    } else {
-                        System.out.println("⚠️ Could not parse valid time from: '" + timeText + "'");
-                    }
-                }
+            // Extract time regions with optimized coordinates
+            Map<String, String> times = OCRUtils.performBatchTimeOCR(frame, DEPLOY_TIME_REGIONS, timeRegionPath, instance.index);
+            String parsedTime = times.get("deploy_time");
+            if (parsedTime != null) {
+                System.out.println("✅ Successfully parsed time: " + parsedTime + " from deploy screen (FAST)");
+                return parsedTime;
             }
             
             System.out.println("⚠️ Could not extract time, using default");
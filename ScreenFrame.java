@@ -0,0 +1,272 @@
+package newgame;
+
+import org.opencv.core.CvType;
+import org.opencv.core.Mat;
+import org.opencv.core.Size;
+import org.opencv.imgcodecs.Imgcodecs;
+import org.opencv.imgproc.Imgproc;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import javax.imageio.ImageIO;
+
+/**
+ * One captured screen, decoded at most once.
+ * Grayscale, BGR and BufferedImage views are derived lazily from whichever
+ * form the frame was created with, so any number of template matches and
+ * OCR crops on the same frame share a single decode.
+ */
+public class ScreenFrame implements AutoCloseable {
+    private final int instanceIndex;
+    private String sourcePath;
+    private Mat bgr;
+    private Mat gray;
+    private final Map<Integer, Mat> scaledGray = new HashMap<>();
+    private BufferedImage image;
+    private boolean closed = false;
+
+    private ScreenFrame(int instanceIndex, String sourcePath, Mat bgr, BufferedImage image) {
+        this.instanceIndex = instanceIndex;
+        this.sourcePath = sourcePath;
+        this.bgr = bgr;
+        this.image = image;
+    }
+
+    /**
+     * Wrap a screenshot already on disk. Nothing is decoded until a view is requested.
+     */
+    public static ScreenFrame fromFile(String path) {
+        return fromFile(path, -1);
+    }
+
+    public static ScreenFrame fromFile(String path, int instanceIndex) {
+        return new ScreenFrame(instanceIndex, path, null, null);
+    }
+
+    public static ScreenFrame fromImage(BufferedImage image, int instanceIndex) {
+        return new ScreenFrame(instanceIndex, null, null, image);
+    }
+
+    public static ScreenFrame fromMat(Mat bgr, int instanceIndex) {
+        return new ScreenFrame(instanceIndex, null, bgr, null);
+    }
+
+    /**
+     * Capture the instance's screen straight into memory.
+     * Falls back to a screenshot file if the in-memory capture fails.
+     */
+    public static ScreenFrame capture(int instanceIndex) {
+        if (BotUtils.isOpenCvLoaded()) {
+            Mat screen = BotUtils.captureScreenMat(instanceIndex);
+            if (screen != null) {
+                return fromMat(screen, instanceIndex);
+            }
+        } else {
+            BufferedImage screen = BotUtils.captureScreenImage(instanceIndex);
+            if (screen != null) {
+                return fromImage(screen, instanceIndex);
+            }
+        }
+
+        String fallbackPath = BotUtils.SCREENSHOTS_DIR + "/frame_" + instanceIndex + ".png";
+        if (BotUtils.takeScreenshot(instanceIndex, fallbackPath)) {
+            return fromFile(fallbackPath, instanceIndex);
+        }
+
+        System.err.println("❌ Failed to capture frame for instance " + instanceIndex);
+        return null;
+    }
+
+    public int getInstanceIndex() {
+        return instanceIndex;
+    }
+
+    /**
+     * Path of the file this frame was loaded from, or null for in-memory captures
+     */
+    public String getSourcePath() {
+        return sourcePath;
+    }
+
+    public String describe() {
+        return sourcePath != null ? sourcePath : "in-memory frame (instance " + instanceIndex + ")";
+    }
+
+    /**
+     * BGR view. Returns null if the frame cannot be decoded or OpenCV is unavailable.
+     */
+    public synchronized Mat bgr() {
+        ensureOpen();
+        if (bgr != null) {
+            return bgr;
+        }
+        if (!BotUtils.isOpenCvLoaded()) {
+            return null;
+        }
+
+        if (image != null) {
+            bgr = imageToMat(image);
+        } else if (sourcePath != null) {
+            Mat decoded = Imgcodecs.imread(sourcePath, Imgcodecs.IMREAD_COLOR);
+            if (decoded.empty()) {
+                System.err.println("Failed to load screenshot: " + sourcePath);
+                decoded.release();
+                return null;
+            }
+            bgr = decoded;
+        }
+        return bgr;
+    }
+
+    /**
+     * Grayscale view used for template matching
+     */
+    public synchronized Mat gray() {
+        ensureOpen();
+        if (gray != null) {
+            return gray;
+        }
+
+        Mat source = bgr();
+        if (source == null) {
+            return null;
+        }
+
+        gray = new Mat();
+        Imgproc.cvtColor(source, gray, Imgproc.COLOR_BGR2GRAY);
+        return gray;
+    }
+
+    /**
+     * Grayscale view shrunk by the given factor, used for coarse pyramid matching
+     */
+    public synchronized Mat grayScaled(int factor) {
+        if (factor <= 1) {
+            return gray();
+        }
+        Mat cached = scaledGray.get(factor);
+        if (cached != null) {
+            return cached;
+        }
+
+        Mat source = gray();
+        if (source == null) {
+            return null;
+        }
+
+        Mat scaled = new Mat();
+        Imgproc.resize(source, scaled, new Size(source.cols() / factor, source.rows() / factor), 0, 0, Imgproc.INTER_AREA);
+        scaledGray.put(factor, scaled);
+        return scaled;
+    }
+
+    /**
+     * BufferedImage view used for cropping and OCR preprocessing
+     */
+    public synchronized BufferedImage image() {
+        ensureOpen();
+        if (image != null) {
+            return image;
+        }
+
+        if (bgr != null) {
+            image = matToImage(bgr);
+        } else if (sourcePath != null) {
+            try {
+                image = ImageIO.read(new File(sourcePath));
+                if (image == null) {
+                    System.err.println("❌ Could not load source image: " + sourcePath);
+                }
+            } catch (IOException e) {
+                System.err.println("❌ Could not load source image: " + sourcePath + " - " + e.getMessage());
+            }
+        }
+        return image;
+    }
+
+    /**
+     * Make sure the frame exists as a file, writing it to the given path only
+     * when it was captured in memory. Returns the path to use, or null on failure.
+     */
+    public synchronized String toFile(String path) {
+        ensureOpen();
+        if (sourcePath != null) {
+            return sourcePath;
+        }
+
+        File outputFile = new File(path);
+        File parentDir = outputFile.getParentFile();
+        if (parentDir != null && !parentDir.exists()) {
+            parentDir.mkdirs();
+        }
+
+        boolean saved = false;
+        if (bgr != null) {
+            saved = Imgcodecs.imwrite(path, bgr);
+        } else if (image != null) {
+            try {
+                saved = ImageIO.write(image, "PNG", outputFile);
+            } catch (IOException e) {
+                System.err.println("❌ Failed to write frame: " + e.getMessage());
+            }
+        }
+
+        if (!saved) {
+            return null;
+        }
+        sourcePath = path;
+        return path;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        for (Mat scaled : scaledGray.values()) {
+            scaled.release();
+        }
+        scaledGray.clear();
+        if (gray != null) {
+            gray.release();
+            gray = null;
+        }
+        if (bgr != null) {
+            bgr.release();
+            bgr = null;
+        }
+        image = null;
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("ScreenFrame already closed");
+        }
+    }
+
+    private static BufferedImage matToImage(Mat mat) {
+        int width = mat.cols();
+        int height = mat.rows();
+        BufferedImage converted = new BufferedImage(width, height, BufferedImage.TYPE_3BYTE_BGR);
+        byte[] target = ((DataBufferByte) converted.getRaster().getDataBuffer()).getData();
+        mat.get(0, 0, target);
+        return converted;
+    }
+
+    private static Mat imageToMat(BufferedImage source) {
+        BufferedImage bgrImage = source;
+        if (source.getType() != BufferedImage.TYPE_3BYTE_BGR) {
+            bgrImage = new BufferedImage(source.getWidth(), source.getHeight(), BufferedImage.TYPE_3BYTE_BGR);
+            bgrImage.getGraphics().drawImage(source, 0, 0, null);
+        }
+
+        byte[] pixels = ((DataBufferByte) bgrImage.getRaster().getDataBuffer()).getData();
+        Mat mat = new Mat(bgrImage.getHeight(), bgrImage.getWidth(), CvType.CV_8UC3);
+        mat.put(0, 0, pixels);
+        return mat;
+    }
+}
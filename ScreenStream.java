@@ -0,0 +1,127 @@
+package newgame;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.util.Locale;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Continuous raw screencap for one instance, used while waiting for the
+ * screen to react to input. A single exec-out process loops screencap on the
+ * device and the frames are reduced to signatures as they arrive, so a wait
+ * costs one process launch instead of one per poll.
+ */
+public class ScreenStream implements AutoCloseable {
+    private static final int MAX_QUEUED = 4;
+    private static final int COLOR_SPACE_LIMIT = 16;
+
+    private final int instanceIndex;
+    private final Process process;
+    // Only the newest few signatures matter; older ones are dropped when full
+    private final BlockingQueue<byte[]> signatures = new LinkedBlockingQueue<>(MAX_QUEUED);
+    private volatile boolean ended;
+
+    private ScreenStream(int instanceIndex, Process process) {
+        this.instanceIndex = instanceIndex;
+        this.process = process;
+    }
+
+    /**
+     * Start streaming frames every pollMillis, or null if adb could not be launched
+     */
+    public static ScreenStream open(int instanceIndex, long pollMillis) {
+        String interval = String.format(Locale.ROOT, "%.1f", pollMillis / 1000.0);
+        try {
+            Process process = new ProcessBuilder(
+                BotUtils.MEMUC_PATH, "adb", "-i", String.valueOf(instanceIndex), "exec-out",
+                "while", "true;", "do", "screencap;", "sleep", interval + ";", "done"
+            ).redirectError(ProcessBuilder.Redirect.DISCARD).start();
+
+            ScreenStream stream = new ScreenStream(instanceIndex, process);
+            Thread reader = new Thread(stream::pump, "screen-stream-" + instanceIndex);
+            reader.setDaemon(true);
+            reader.start();
+            return stream;
+        } catch (IOException e) {
+            System.err.println("⚠️ [STREAM] Could not start screen stream for instance " + instanceIndex + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Signature of the next frame, or null if none arrived within timeoutMillis
+     * or the stream has ended
+     */
+    public byte[] next(long timeoutMillis) throws InterruptedException {
+        if (ended) {
+            return signatures.poll();
+        }
+        return signatures.poll(Math.max(1, timeoutMillis), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * False once the stream stopped delivering frames, e.g. adb exited or a
+     * header did not match
+     */
+    public boolean isAlive() {
+        return !ended || !signatures.isEmpty();
+    }
+
+    @Override
+    public void close() {
+        process.destroyForcibly();
+    }
+
+    private void pump() {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(process.getInputStream(), 256 * 1024))) {
+            byte[] header = new byte[16];
+            in.readFully(header, 0, 12);
+            int width = BotUtils.readIntLE(header, 0);
+            int height = BotUtils.readIntLE(header, 4);
+            int format = BotUtils.readIntLE(header, 8);
+            if (width <= 0 || height <= 0 || width * height > 16_000_000 ||
+                (format != BotUtils.RAW_FORMAT_RGBA_8888 && format != BotUtils.RAW_FORMAT_RGBX_8888)) {
+                System.err.println("⚠️ [STREAM] Unexpected screencap header on instance " + instanceIndex + ": " + width + "x" + height + " format " + format);
+                return;
+            }
+
+            // Android 9+ adds a small colour space field; without it these bytes are the first pixel
+            byte[] pixels = new byte[width * height * 4];
+            in.readFully(header, 12, 4);
+            int colorSpace = BotUtils.readIntLE(header, 12);
+            int headerSize = colorSpace >= 0 && colorSpace < COLOR_SPACE_LIMIT ? 16 : 12;
+            if (headerSize == 16) {
+                in.readFully(pixels);
+            } else {
+                System.arraycopy(header, 12, pixels, 0, 4);
+                in.readFully(pixels, 4, pixels.length - 4);
+            }
+            offer(BotUtils.screenSignature(pixels, 0, width, height));
+
+            while (!Thread.currentThread().isInterrupted()) {
+                in.readFully(header, 0, headerSize);
+                if (BotUtils.readIntLE(header, 0) != width || BotUtils.readIntLE(header, 4) != height ||
+                    BotUtils.readIntLE(header, 8) != format) {
+                    System.err.println("⚠️ [STREAM] Lost frame sync on instance " + instanceIndex);
+                    return;
+                }
+                in.readFully(pixels);
+                offer(BotUtils.screenSignature(pixels, 0, width, height));
+            }
+        } catch (IOException e) {
+            // adb exited or the stream was closed
+        } finally {
+            ended = true;
+            process.destroyForcibly();
+        }
+    }
+
+    private void offer(byte[] signature) {
+        while (!signatures.offer(signature)) {
+            signatures.poll();
+        }
+    }
+}
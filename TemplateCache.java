@@ -0,0 +1,318 @@
+package newgame;
+
+import org.opencv.core.Mat;
+import org.opencv.core.Size;
+import org.opencv.imgcodecs.Imgcodecs;
+import org.opencv.imgproc.Imgproc;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resident registry of grayscale template Mats.
+ * Templates are loaded once (eagerly from src/images at startup, or lazily on
+ * first use) and kept in native memory. Files changed under src/images are
+ * reloaded automatically once they stop changing; everything is released on
+ * shutdown.
+ */
+public class TemplateCache {
+    private static final String TEMPLATE_DIR = "src/images";
+    private static final String[] SEARCH_DIRS = {"src/images/", "", "images/"};
+
+    private static final Map<String, Mat> grayTemplates = new ConcurrentHashMap<>();
+    private static final Map<String, Mat> scaledTemplates = new ConcurrentHashMap<>();
+    private static final Map<String, String> templatePaths = new ConcurrentHashMap<>();
+    // Replaced Mats may still be in use by a running match, so they are freed after a grace period
+    private static final List<RetiredTemplate> retiredTemplates = new ArrayList<>();
+
+    // Editors write a file in several steps; wait until it has been quiet this long
+    private static final long RELOAD_DEBOUNCE_MS = 500;
+    private static final int MAX_RELOAD_ATTEMPTS = 5;
+    // Far longer than any single match holds a template
+    private static final long RETIRE_GRACE_MS = 30000;
+    private static volatile Thread watcherThread;
+
+    private static class RetiredTemplate {
+        final Mat mat;
+        final long retiredAt;
+
+        RetiredTemplate(Mat mat, long retiredAt) {
+            this.mat = mat;
+            this.retiredAt = retiredAt;
+        }
+    }
+
+    private static class PendingReload {
+        long lastEventAt;
+        int attempts;
+    }
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(TemplateCache::releaseAll, "template-cache-shutdown"));
+    }
+
+    /**
+     * Resolve a template name to a file, probing the search directories only
+     * on the first lookup
+     */
+    public static String resolvePath(String templateName) {
+        String cached = templatePaths.get(templateName);
+        if (cached != null) {
+            return cached;
+        }
+
+        for (String dir : SEARCH_DIRS) {
+            File file = new File(dir + templateName);
+            if (file.exists()) {
+                String path = file.getAbsolutePath();
+                templatePaths.put(templateName, path);
+                return path;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Grayscale template, loaded on first use. The returned Mat is shared and
+     * must not be released by callers. Returns null if missing or unreadable.
+     */
+    public static Mat getGray(String templateName) {
+        Mat cached = grayTemplates.get(templateName);
+        if (cached != null) {
+            return cached;
+        }
+
+        synchronized (TemplateCache.class) {
+            cached = grayTemplates.get(templateName);
+            if (cached != null) {
+                return cached;
+            }
+
+            Mat loaded = load(templateName);
+            if (loaded != null) {
+                grayTemplates.put(templateName, loaded);
+            }
+            return loaded;
+        }
+    }
+
+    /**
+     * Grayscale template shrunk by the given factor for coarse pyramid matching.
+     * Shared like getGray; returns null if the template is unavailable.
+     */
+    public static Mat getGrayScaled(String templateName, int factor) {
+        if (factor <= 1) {
+            return getGray(templateName);
+        }
+
+        String key = templateName + "@" + factor;
+        Mat cached = scaledTemplates.get(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        synchronized (TemplateCache.class) {
+            cached = scaledTemplates.get(key);
+            if (cached != null) {
+                return cached;
+            }
+
+            Mat full = getGray(templateName);
+            if (full == null) {
+                return null;
+            }
+
+            Mat scaled = new Mat();
+            Imgproc.resize(full, scaled, new Size(full.cols() / factor, full.rows() / factor), 0, 0, Imgproc.INTER_AREA);
+            scaledTemplates.put(key, scaled);
+            return scaled;
+        }
+    }
+
+    /**
+     * Load every template in src/images and start watching it for changes
+     */
+    public static void preload() {
+        if (!BotUtils.isOpenCvLoaded()) {
+            return;
+        }
+
+        File[] files = new File(TEMPLATE_DIR).listFiles((dir, name) -> name.toLowerCase().endsWith(".png"));
+        if (files == null) {
+            System.out.println("⚠️ [TEMPLATES] No template directory found at " + TEMPLATE_DIR);
+            return;
+        }
+
+        int loaded = 0;
+        for (File file : files) {
+            if (getGray(file.getName()) != null) {
+                loaded++;
+            }
+        }
+        System.out.println("🖼️ [TEMPLATES] Preloaded " + loaded + "/" + files.length + " templates from " + TEMPLATE_DIR);
+
+        startWatching();
+    }
+
+    public static int size() {
+        return grayTemplates.size();
+    }
+
+    public static synchronized void releaseAll() {
+        Thread watcher = watcherThread;
+        watcherThread = null;
+        if (watcher != null) {
+            watcher.interrupt();
+        }
+
+        for (Mat template : grayTemplates.values()) {
+            template.release();
+        }
+        grayTemplates.clear();
+        for (Mat template : scaledTemplates.values()) {
+            template.release();
+        }
+        scaledTemplates.clear();
+        for (RetiredTemplate retired : retiredTemplates) {
+            retired.mat.release();
+        }
+        retiredTemplates.clear();
+        templatePaths.clear();
+    }
+
+    private static Mat load(String templateName) {
+        String path = resolvePath(templateName);
+        if (path == null) {
+            return null;
+        }
+
+        Mat template = Imgcodecs.imread(path, Imgcodecs.IMREAD_GRAYSCALE);
+        if (template.empty()) {
+            template.release();
+            return null;
+        }
+        return template;
+    }
+
+    /**
+     * Swap in the current file contents. The old Mat stays in place if the
+     * file exists but does not decode yet; returns false so the caller retries.
+     */
+    private static synchronized boolean reload(String templateName) {
+        templatePaths.remove(templateName);
+        boolean exists = resolvePath(templateName) != null;
+        Mat replacement = exists ? load(templateName) : null;
+        if (exists && replacement == null) {
+            return false;
+        }
+
+        long now = System.currentTimeMillis();
+        Mat previous = replacement != null ? grayTemplates.put(templateName, replacement) : grayTemplates.remove(templateName);
+        if (previous != null) {
+            retiredTemplates.add(new RetiredTemplate(previous, now));
+        }
+        scaledTemplates.entrySet().removeIf(entry -> {
+            if (entry.getKey().startsWith(templateName + "@")) {
+                retiredTemplates.add(new RetiredTemplate(entry.getValue(), now));
+                return true;
+            }
+            return false;
+        });
+
+        if (replacement != null) {
+            System.out.println("🔄 [TEMPLATES] Reloaded " + templateName);
+        } else {
+            System.out.println("🗑️ [TEMPLATES] Dropped " + templateName);
+        }
+        return true;
+    }
+
+    private static synchronized void releaseRetired(long now) {
+        Iterator<RetiredTemplate> retired = retiredTemplates.iterator();
+        while (retired.hasNext()) {
+            RetiredTemplate template = retired.next();
+            if (now - template.retiredAt >= RETIRE_GRACE_MS) {
+                template.mat.release();
+                retired.remove();
+            }
+        }
+    }
+
+    private static synchronized void startWatching() {
+        if (watcherThread != null) {
+            return;
+        }
+
+        Path dir = Paths.get(TEMPLATE_DIR);
+        WatchService watchService;
+        try {
+            watchService = FileSystems.getDefault().newWatchService();
+            dir.register(watchService,
+                StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY,
+                StandardWatchEventKinds.ENTRY_DELETE);
+        } catch (IOException e) {
+            System.err.println("⚠️ [TEMPLATES] Hot reload disabled: " + e.getMessage());
+            return;
+        }
+
+        watcherThread = new Thread(() -> watch(watchService), "template-cache-watcher");
+        watcherThread.setDaemon(true);
+        watcherThread.start();
+    }
+
+    private static void watch(WatchService watchService) {
+        Map<String, PendingReload> pending = new HashMap<>();
+        try (WatchService service = watchService) {
+            while (!Thread.currentThread().isInterrupted()) {
+                WatchKey key = service.poll(RELOAD_DEBOUNCE_MS, TimeUnit.MILLISECONDS);
+                long now = System.currentTimeMillis();
+                if (key != null) {
+                    for (WatchEvent<?> event : key.pollEvents()) {
+                        if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                            continue;
+                        }
+                        String name = event.context().toString();
+                        if (name.toLowerCase().endsWith(".png")) {
+                            pending.computeIfAbsent(name, k -> new PendingReload()).lastEventAt = now;
+                        }
+                    }
+                    if (!key.reset()) {
+                        System.err.println("⚠️ [TEMPLATES] Template directory no longer watchable");
+                        return;
+                    }
+                }
+
+                Iterator<Map.Entry<String, PendingReload>> reloads = pending.entrySet().iterator();
+                while (reloads.hasNext()) {
+                    Map.Entry<String, PendingReload> entry = reloads.next();
+                    PendingReload reload = entry.getValue();
+                    if (now - reload.lastEventAt < RELOAD_DEBOUNCE_MS) {
+                        continue;
+                    }
+                    if (reload(entry.getKey())) {
+                        reloads.remove();
+                    } else if (++reload.attempts >= MAX_RELOAD_ATTEMPTS) {
+                        System.err.println("⚠️ [TEMPLATES] Could not decode " + entry.getKey() + ", keeping the previous version");
+                        reloads.remove();
+                    } else {
+                        // Probably still being written; try again after another quiet period
+                        reload.lastEventAt = now;
+                    }
+                }
+                releaseRetired(now);
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // Shutting down
+        } catch (IOException e) {
+            System.err.println("⚠️ [TEMPLATES] Watcher error: " + e.getMessage());
+        }
+    }
+}
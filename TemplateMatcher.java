@@ -0,0 +1,477 @@
+package newgame;
+
+import org.opencv.core.Core;
+import org.opencv.core.Mat;
+import org.opencv.core.Rect;
+import org.opencv.core.Scalar;
+import org.opencv.imgproc.Imgproc;
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+/**
+ * Batch template matching against a single frame.
+ * Each template's score map is computed once and every threshold asked for
+ * that template is applied to it. Templates within a priority tier are matched
+ * in parallel; tiers run in order so callers can stop at the first tier with a hit.
+ */
+public class TemplateMatcher {
+    private static final ForkJoinPool matchPool = new ForkJoinPool(
+        Math.max(2, Runtime.getRuntime().availableProcessors() / 2));
+
+    private static final int COARSE_CANDIDATES = 3;
+    private static final int MIN_COARSE_TEMPLATE_SIDE = 8;
+
+    /**
+     * How a template is searched for. Pyramid modes find candidates on a
+     * downscaled screen and re-score them at full resolution, so reported
+     * confidences are the same TM_CCOEFF_NORMED values as EXACT.
+     */
+    public enum MatchMode {
+        EXACT(1),
+        PYRAMID_HALF(2),
+        PYRAMID_QUARTER(4);
+
+        final int factor;
+
+        MatchMode(int factor) {
+            this.factor = factor;
+        }
+    }
+
+    // Last hit per "instance:template"; the next lookup tries a small window there first
+    private static final Map<String, Point> lastHitLocations = new ConcurrentHashMap<>();
+    private static final int LOCALITY_PADDING = 8;
+    private static final AtomicLong localityHits = new AtomicLong();
+    private static final AtomicLong localityMisses = new AtomicLong();
+
+    // Pyramid matching is opt-in: small or low-threshold templates can lose their peak when downscaled
+    private static volatile MatchMode defaultMode = MatchMode.EXACT;
+    private static final Map<String, MatchMode> templateModes = new ConcurrentHashMap<>();
+
+    // Screen areas where templates are known to appear; matching is limited to these
+    private static final Map<String, Rectangle> defaultRegions = new ConcurrentHashMap<>();
+
+    static {
+        // Left panel toggle sits on the left edge
+        setDefaultRegion("open_left.png", new Rectangle(0, 0, 120, 1000));
+        // Large icon searched across the whole screen on every game status poll, only ever at 0.7.
+        // world_icon and town_icon stay EXACT: MarchViewNavigator accepts them at 0.6, and the
+        // half-resolution pass can drop a weak full-resolution hit.
+        setMatchMode("game_icon.png", MatchMode.PYRAMID_HALF);
+    }
+
+    /**
+     * Best match of one template on a screen
+     */
+    public static class MatchScore {
+        public final double confidence;
+        public final Point location;
+
+        MatchScore(double confidence, Point location) {
+            this.confidence = confidence;
+            this.location = location;
+        }
+    }
+
+    /**
+     * One template to look for. Lower priority values are checked first.
+     * Thresholds are tried from highest to lowest; a hit reports the highest one met.
+     */
+    public static class Query {
+        public final String templateName;
+        public final int priority;
+        public final double[] thresholds;
+        private Predicate<Point> filter = location -> true;
+        private Rectangle region;
+
+        public Query(String templateName, int priority, double... thresholds) {
+            if (thresholds.length == 0) {
+                throw new IllegalArgumentException("At least one threshold is required for " + templateName);
+            }
+            this.templateName = templateName;
+            this.priority = priority;
+            this.thresholds = thresholds.clone();
+            Arrays.sort(this.thresholds);
+            this.region = getDefaultRegion(templateName);
+        }
+
+        /**
+         * Only search inside this screen region (null for the whole screen)
+         */
+        public Query within(Rectangle region) {
+            this.region = region;
+            return this;
+        }
+
+        /**
+         * Reject hits whose location fails the given check
+         */
+        public Query accept(Predicate<Point> filter) {
+            this.filter = filter;
+            return this;
+        }
+    }
+
+    /**
+     * A query whose template was found at or above one of its thresholds
+     */
+    public static class Hit {
+        public final Query query;
+        public final Point location;
+        public final double confidence;
+        public final double threshold;
+
+        Hit(Query query, Point location, double confidence, double threshold) {
+            this.query = query;
+            this.location = location;
+            this.confidence = confidence;
+            this.threshold = threshold;
+        }
+
+        @Override
+        public String toString() {
+            return query.templateName + " at (" + location.x + ", " + location.y + ") confidence " +
+                   String.format("%.3f", confidence) + " >= " + threshold;
+        }
+    }
+
+    public static void setDefaultMatchMode(MatchMode mode) {
+        defaultMode = mode;
+    }
+
+    public static void setMatchMode(String templateName, MatchMode mode) {
+        if (mode == null) {
+            templateModes.remove(templateName);
+        } else {
+            templateModes.put(templateName, mode);
+        }
+    }
+
+    public static MatchMode getMatchMode(String templateName) {
+        return templateModes.getOrDefault(templateName, defaultMode);
+    }
+
+    public static void setDefaultRegion(String templateName, Rectangle region) {
+        if (region == null) {
+            defaultRegions.remove(templateName);
+        } else {
+            defaultRegions.put(templateName, new Rectangle(region));
+        }
+    }
+
+    public static Rectangle getDefaultRegion(String templateName) {
+        Rectangle region = defaultRegions.get(templateName);
+        return region != null ? new Rectangle(region) : null;
+    }
+
+    /**
+     * Best match of a template inside a region of the screen, mapped back to
+     * full-screen coordinates. The region is clipped to the screen; returns null
+     * if the template does not fit in what remains.
+     */
+    public static MatchScore score(Mat screen, Mat template, Rectangle region) {
+        if (region == null) {
+            return score(screen, template);
+        }
+
+        int left = Math.max(0, region.x);
+        int top = Math.max(0, region.y);
+        int right = Math.min(screen.cols(), region.x + region.width);
+        int bottom = Math.min(screen.rows(), region.y + region.height);
+        if (right - left < template.cols() || bottom - top < template.rows()) {
+            return null;
+        }
+
+        Mat roi = screen.submat(new Rect(left, top, right - left, bottom - top));
+        try {
+            MatchScore local = score(roi, template);
+            if (local == null) {
+                return null;
+            }
+            return new MatchScore(local.confidence, new Point(local.location.x + left, local.location.y + top));
+        } finally {
+            roi.release();
+        }
+    }
+
+    /**
+     * Best match location and score of a template, or null if the template is
+     * larger than the screen
+     */
+    public static MatchScore score(Mat screen, Mat template) {
+        if (template.cols() > screen.cols() || template.rows() > screen.rows()) {
+            return null;
+        }
+
+        Mat result = new Mat();
+        try {
+            Imgproc.matchTemplate(screen, template, result, Imgproc.TM_CCOEFF_NORMED);
+            Core.MinMaxLocResult mmr = Core.minMaxLoc(result);
+            return new MatchScore(mmr.maxVal, new Point((int) mmr.maxLoc.x, (int) mmr.maxLoc.y));
+        } finally {
+            result.release();
+        }
+    }
+
+    /**
+     * Score a template, first trying a small window around where it was last
+     * found on this instance. The window result is only used if it reaches
+     * acceptThreshold; otherwise the normal region search runs.
+     */
+    public static MatchScore findTemplate(ScreenFrame frame, String templateName, Rectangle region, double acceptThreshold) {
+        int instanceIndex = frame.getInstanceIndex();
+        String key = instanceIndex + ":" + templateName;
+        Point lastHit = instanceIndex >= 0 ? lastHitLocations.get(key) : null;
+
+        if (lastHit != null) {
+            MatchScore local = scoreNear(frame, templateName, region, lastHit);
+            if (local != null && local.confidence >= acceptThreshold) {
+                localityHits.incrementAndGet();
+                lastHitLocations.put(key, local.location);
+                return local;
+            }
+            localityMisses.incrementAndGet();
+        }
+
+        MatchScore score = scoreTemplate(frame, templateName, region);
+        if (instanceIndex >= 0 && score != null && score.confidence >= acceptThreshold) {
+            lastHitLocations.put(key, score.location);
+        }
+        return score;
+    }
+
+    public static long getLocalityHits() {
+        return localityHits.get();
+    }
+
+    public static long getLocalityMisses() {
+        return localityMisses.get();
+    }
+
+    public static String describeLocalityStats() {
+        long hits = localityHits.get();
+        long misses = localityMisses.get();
+        long total = hits + misses;
+        double rate = total > 0 ? hits * 100.0 / total : 0;
+        return String.format("locality cache: %d hits, %d misses (%.1f%% hit rate)", hits, misses, rate);
+    }
+
+    /**
+     * Forget remembered locations for an instance, e.g. after it restarts
+     */
+    public static void clearLocality(int instanceIndex) {
+        String prefix = instanceIndex + ":";
+        lastHitLocations.keySet().removeIf(key -> key.startsWith(prefix));
+    }
+
+    private static MatchScore scoreNear(ScreenFrame frame, String templateName, Rectangle region, Point lastHit) {
+        Mat template = TemplateCache.getGray(templateName);
+        Mat screen = frame.gray();
+        if (template == null || screen == null) {
+            return null;
+        }
+
+        Rectangle window = new Rectangle(lastHit.x - LOCALITY_PADDING, lastHit.y - LOCALITY_PADDING,
+            template.cols() + LOCALITY_PADDING * 2, template.rows() + LOCALITY_PADDING * 2);
+        if (region != null) {
+            window = window.intersection(region);
+        }
+        return score(screen, template, window);
+    }
+
+    /**
+     * Score a cached template on a frame using the template's match mode.
+     * Templates too small to survive downscaling are always matched exactly.
+     */
+    public static MatchScore scoreTemplate(ScreenFrame frame, String templateName, Rectangle region) {
+        Mat template = TemplateCache.getGray(templateName);
+        if (template == null) {
+            System.err.println("Template not found: " + templateName);
+            return null;
+        }
+
+        Mat screen = frame.gray();
+        if (screen == null) {
+            return null;
+        }
+
+        int factor = getMatchMode(templateName).factor;
+        if (factor > 1 && Math.min(template.cols(), template.rows()) / factor >= MIN_COARSE_TEMPLATE_SIDE) {
+            Mat coarseScreen = frame.grayScaled(factor);
+            Mat coarseTemplate = TemplateCache.getGrayScaled(templateName, factor);
+            if (coarseScreen != null && coarseTemplate != null) {
+                return scorePyramid(screen, template, coarseScreen, coarseTemplate, factor, region);
+            }
+        }
+        return score(screen, template, region);
+    }
+
+    /**
+     * Find the best few candidates on the downscaled screen, then run the exact
+     * match only in a small window around each of them
+     */
+    private static MatchScore scorePyramid(Mat screen, Mat template, Mat coarseScreen, Mat coarseTemplate,
+                                           int factor, Rectangle region) {
+        Rectangle searchArea = region != null ? region : new Rectangle(0, 0, screen.cols(), screen.rows());
+        int left = Math.max(0, searchArea.x / factor);
+        int top = Math.max(0, searchArea.y / factor);
+        int right = Math.min(coarseScreen.cols(), (searchArea.x + searchArea.width) / factor);
+        int bottom = Math.min(coarseScreen.rows(), (searchArea.y + searchArea.height) / factor);
+        if (right - left < coarseTemplate.cols() || bottom - top < coarseTemplate.rows()) {
+            return score(screen, template, region);
+        }
+
+        Mat coarseRoi = coarseScreen.submat(new Rect(left, top, right - left, bottom - top));
+        Mat result = new Mat();
+        List<Point> candidates = new ArrayList<>();
+        try {
+            Imgproc.matchTemplate(coarseRoi, coarseTemplate, result, Imgproc.TM_CCOEFF_NORMED);
+            for (int i = 0; i < COARSE_CANDIDATES; i++) {
+                Core.MinMaxLocResult mmr = Core.minMaxLoc(result);
+                int cx = (int) mmr.maxLoc.x;
+                int cy = (int) mmr.maxLoc.y;
+                candidates.add(new Point((cx + left) * factor, (cy + top) * factor));
+
+                // Suppress this peak so the next candidate is a different location
+                int sx = Math.max(0, cx - coarseTemplate.cols() / 2);
+                int sy = Math.max(0, cy - coarseTemplate.rows() / 2);
+                int sw = Math.min(result.cols() - sx, coarseTemplate.cols());
+                int sh = Math.min(result.rows() - sy, coarseTemplate.rows());
+                Mat suppressed = result.submat(new Rect(sx, sy, sw, sh));
+                suppressed.setTo(new Scalar(-1));
+                suppressed.release();
+            }
+        } finally {
+            result.release();
+            coarseRoi.release();
+        }
+
+        int padding = factor * 2;
+        MatchScore best = null;
+        for (Point candidate : candidates) {
+            Rectangle window = new Rectangle(candidate.x - padding, candidate.y - padding,
+                template.cols() + padding * 2, template.rows() + padding * 2);
+            MatchScore refined = score(screen, template, searchArea.intersection(window));
+            if (refined != null && (best == null || refined.confidence > best.confidence)) {
+                best = refined;
+            }
+        }
+        return best != null ? best : score(screen, template, region);
+    }
+
+    /**
+     * Match every query against the frame and return all hits, ordered by
+     * priority then confidence
+     */
+    public static List<Hit> matchAll(ScreenFrame frame, List<Query> queries) {
+        return match(frame, queries, false);
+    }
+
+    /**
+     * Match tier by tier and stop after the first priority tier that produces a hit
+     */
+    public static List<Hit> matchFirstTier(ScreenFrame frame, List<Query> queries) {
+        return match(frame, queries, true);
+    }
+
+    private static List<Hit> match(ScreenFrame frame, List<Query> queries, boolean stopAtFirstTier) {
+        List<Hit> hits = new ArrayList<>();
+        if (!BotUtils.isOpenCvLoaded()) {
+            System.err.println("OpenCV not loaded, cannot perform image matching");
+            return hits;
+        }
+
+        Mat screen = frame.gray();
+        if (screen == null) {
+            System.err.println("Failed to load screenshot: " + frame.describe());
+            return hits;
+        }
+
+        Map<Integer, List<Query>> tiers = new TreeMap<>();
+        for (Query query : queries) {
+            tiers.computeIfAbsent(query.priority, p -> new ArrayList<>()).add(query);
+        }
+
+        for (List<Query> tier : tiers.values()) {
+            List<Hit> tierHits = matchTier(frame, tier);
+            hits.addAll(tierHits);
+            if (stopAtFirstTier && !tierHits.isEmpty()) {
+                break;
+            }
+        }
+
+        hits.sort(Comparator.<Hit>comparingInt(h -> h.query.priority)
+            .thenComparing(h -> -h.confidence));
+        return hits;
+    }
+
+    private static List<Hit> matchTier(ScreenFrame frame, List<Query> tier) {
+        // One score map per template and region, however many queries share it
+        Map<String, List<Query>> byTemplate = new LinkedHashMap<>();
+        for (Query query : tier) {
+            String key = query.templateName + "@" + query.region;
+            byTemplate.computeIfAbsent(key, k -> new ArrayList<>()).add(query);
+        }
+
+        Map<String, ForkJoinTask<MatchScore>> tasks = new LinkedHashMap<>();
+        for (Map.Entry<String, List<Query>> group : byTemplate.entrySet()) {
+            Query first = group.getValue().get(0);
+            double acceptThreshold = 0;
+            for (Query query : group.getValue()) {
+                acceptThreshold = Math.max(acceptThreshold, query.thresholds[query.thresholds.length - 1]);
+            }
+            double localityThreshold = acceptThreshold;
+            tasks.put(group.getKey(), matchPool.submit(() -> findTemplate(frame, first.templateName, first.region, localityThreshold)));
+        }
+
+        List<Hit> hits = new ArrayList<>();
+        for (Map.Entry<String, ForkJoinTask<MatchScore>> entry : tasks.entrySet()) {
+            MatchScore score;
+            try {
+                score = entry.getValue().join();
+            } catch (RuntimeException e) {
+                // One bad template must not hide the hits of the others
+                System.err.println("❌ [MATCH] Matching " + entry.getKey() + " failed: " + e.getMessage());
+                continue;
+            }
+            if (score == null) {
+                continue;
+            }
+
+            for (Query query : byTemplate.get(entry.getKey())) {
+                Hit hit = applyThresholds(query, score);
+                if (hit != null) {
+                    hits.add(hit);
+                }
+            }
+        }
+        return hits;
+    }
+
+    private static Hit applyThresholds(Query query, MatchScore score) {
+        for (int i = query.thresholds.length - 1; i >= 0; i--) {
+            double threshold = query.thresholds[i];
+            if (score.confidence >= threshold) {
+                if (!query.filter.test(score.location)) {
+                    return null;
+                }
+                System.out.println("Found template at: (" + score.location.x + ", " + score.location.y + ") for " +
+                                   query.templateName + " (confidence: " + String.format("%.3f", score.confidence) + ")");
+                return new Hit(query, score.location, score.confidence, threshold);
+            }
+        }
+        return null;
+    }
+}
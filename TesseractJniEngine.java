@@ -0,0 +1,208 @@
+package newgame;
+
+import com.sun.jna.Pointer;
+import net.sourceforge.tess4j.ITessAPI.TessBaseAPI;
+import net.sourceforge.tess4j.TessAPI1;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-process Tesseract through Tess4J.
+ * Initialized TessBaseAPI handles are pooled per engine mode, so the language
+ * model is loaded once per handle instead of once per call. At most
+ * maxHandles exist per mode; a caller waits for a free one beyond that, and
+ * every handle is returned after each call whatever thread made it.
+ */
+public class TesseractJniEngine implements OCREngine {
+    private static final String LANGUAGE = "eng";
+    private static final String WHITELIST_VARIABLE = "tessedit_char_whitelist";
+
+    private final String dataPath;
+    private final int maxHandles;
+    private final List<TessBaseAPI> allHandles = new CopyOnWriteArrayList<>();
+    private final Map<Integer, HandlePool> pools = new ConcurrentHashMap<>();
+    private volatile boolean available;
+
+    /**
+     * Idle handles for one engine mode and how many have been created
+     */
+    private static class HandlePool {
+        final BlockingQueue<TessBaseAPI> idle = new LinkedBlockingQueue<>();
+        final AtomicInteger created = new AtomicInteger();
+    }
+
+    public TesseractJniEngine() {
+        this(Math.max(2, Runtime.getRuntime().availableProcessors() / 2));
+    }
+
+    public TesseractJniEngine(int maxHandles) {
+        this.maxHandles = Math.max(1, maxHandles);
+        this.dataPath = findDataPath();
+        this.available = dataPath != null && probe();
+        if (available) {
+            Runtime.getRuntime().addShutdownHook(new Thread(this::shutdown, "tesseract-jni-shutdown"));
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "tesseract-jni";
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return available;
+    }
+
+    @Override
+    public String recognize(BufferedImage image, Config config) throws InterruptedException {
+        TessBaseAPI handle = acquire(config.oem);
+        try {
+            prepare(handle, image, config);
+            return readText(handle, TessAPI1.TessBaseAPIGetUTF8Text(handle)).trim();
+        } finally {
+            release(config.oem, handle);
+        }
+    }
+
+    @Override
+    public List<Word> recognizeWords(BufferedImage image, Config config) throws InterruptedException {
+        TessBaseAPI handle = acquire(config.oem);
+        try {
+            prepare(handle, image, config);
+            return Word.parseTsv(readText(handle, TessAPI1.TessBaseAPIGetTsvText(handle, 0)));
+        } finally {
+            release(config.oem, handle);
+        }
+    }
+
+    /**
+     * Configure a handle for the config and hand it the image
+     */
+    private void prepare(TessBaseAPI handle, BufferedImage image, Config config) {
+        TessAPI1.TessBaseAPISetPageSegMode(handle, config.psm);
+        // Variables persist on the handle, so clear a whitelist left by a previous config
+        if (!config.variables.containsKey(WHITELIST_VARIABLE)) {
+            TessAPI1.TessBaseAPISetVariable(handle, WHITELIST_VARIABLE, "");
+        }
+        for (Map.Entry<String, String> variable : config.variables.entrySet()) {
+            TessAPI1.TessBaseAPISetVariable(handle, variable.getKey(), variable.getValue());
+        }
+
+        BufferedImage gray = toGray(image);
+        byte[] pixels = ((DataBufferByte) gray.getRaster().getDataBuffer()).getData();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(pixels.length);
+        buffer.put(pixels);
+        buffer.flip();
+
+        TessAPI1.TessBaseAPISetImage(handle, buffer, gray.getWidth(), gray.getHeight(), 1, gray.getWidth());
+    }
+
+    /**
+     * Copy out and free text returned by the API, then clear the handle for the next image
+     */
+    private static String readText(TessBaseAPI handle, Pointer textPointer) {
+        try {
+            return textPointer != null ? textPointer.getString(0, "UTF-8") : "";
+        } finally {
+            if (textPointer != null) {
+                TessAPI1.TessDeleteText(textPointer);
+            }
+            TessAPI1.TessBaseAPIClear(handle);
+        }
+    }
+
+    /**
+     * Take an idle handle for the mode, creating one while under maxHandles,
+     * otherwise wait for another call to release one
+     */
+    private TessBaseAPI acquire(int oem) throws InterruptedException {
+        HandlePool pool = pools.computeIfAbsent(oem, key -> new HandlePool());
+        TessBaseAPI handle = pool.idle.poll();
+        if (handle != null) {
+            return handle;
+        }
+        if (pool.created.incrementAndGet() > maxHandles) {
+            pool.created.decrementAndGet();
+            return pool.idle.take();
+        }
+
+        try {
+            return create(oem);
+        } catch (RuntimeException e) {
+            pool.created.decrementAndGet();
+            throw e;
+        }
+    }
+
+    private void release(int oem, TessBaseAPI handle) {
+        pools.get(oem).idle.offer(handle);
+    }
+
+    private TessBaseAPI create(int oem) {
+        TessBaseAPI handle = TessAPI1.TessBaseAPICreate();
+        if (TessAPI1.TessBaseAPIInit2(handle, dataPath, LANGUAGE, oem) != 0) {
+            TessAPI1.TessBaseAPIDelete(handle);
+            throw new IllegalStateException("Could not initialize Tesseract (oem " + oem + ") from " + dataPath);
+        }
+
+        allHandles.add(handle);
+        System.out.println("🔤 [OCR] Initialized in-process Tesseract (oem " + oem + "), handle " +
+                           pools.get(oem).created.get() + "/" + maxHandles);
+        return handle;
+    }
+
+    private boolean probe() {
+        try {
+            release(1, acquire(1));
+            return true;
+        } catch (Throwable t) {
+            System.err.println("⚠️ [OCR] In-process Tesseract unavailable: " + t.getMessage());
+            return false;
+        }
+    }
+
+    private void shutdown() {
+        available = false;
+        for (TessBaseAPI handle : allHandles) {
+            TessAPI1.TessBaseAPIEnd(handle);
+            TessAPI1.TessBaseAPIDelete(handle);
+        }
+        allHandles.clear();
+    }
+
+    private static BufferedImage toGray(BufferedImage image) {
+        if (image.getType() == BufferedImage.TYPE_BYTE_GRAY && image.getRaster().getDataBuffer().getSize() ==
+                image.getWidth() * image.getHeight()) {
+            return image;
+        }
+        BufferedImage gray = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_BYTE_GRAY);
+        gray.getGraphics().drawImage(image, 0, 0, null);
+        return gray;
+    }
+
+    private static String findDataPath() {
+        String[] candidates = {
+            System.getenv("TESSDATA_PREFIX"),
+            "C:\\Program Files\\Tesseract-OCR\\tessdata",
+            "C:\\Program Files (x86)\\Tesseract-OCR\\tessdata",
+            "tessdata"
+        };
+
+        for (String candidate : candidates) {
+            if (candidate != null && new File(candidate, LANGUAGE + ".traineddata").exists()) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+}
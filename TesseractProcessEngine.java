@@ -0,0 +1,149 @@
+package newgame;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the tesseract executable once per recognition.
+ * Slow (each call reloads the language model) but needs nothing beyond a
+ * Tesseract install, so it is the fallback engine. In-memory images are
+ * piped to stdin as uncompressed PGM, so no temporary file is written.
+ */
+public class TesseractProcessEngine implements OCREngine {
+    private static final long PROCESS_TIMEOUT_SECONDS = 30;
+
+    private final String tesseractPath;
+
+    public TesseractProcessEngine() {
+        this.tesseractPath = findTesseractPath();
+    }
+
+    @Override
+    public String getName() {
+        return "tesseract-process";
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return tesseractPath != null;
+    }
+
+    @Override
+    public String recognize(String imagePath, Config config) throws Exception {
+        return run(imagePath, null, config, null);
+    }
+
+    @Override
+    public List<Word> recognizeWords(String imagePath, Config config) throws Exception {
+        return Word.parseTsv(run(imagePath, null, config, "tsv"));
+    }
+
+    @Override
+    public String recognize(BufferedImage image, Config config) throws Exception {
+        return run("stdin", toPgm(image), config, null);
+    }
+
+    @Override
+    public List<Word> recognizeWords(BufferedImage image, Config config) throws Exception {
+        return Word.parseTsv(run("stdin", toPgm(image), config, "tsv"));
+    }
+
+    /**
+     * Run tesseract on imagePath, or on stdinImage when imagePath is "stdin"
+     */
+    private String run(String imagePath, byte[] stdinImage, Config config, String outputConfig) throws Exception {
+        if (tesseractPath == null) {
+            throw new IllegalStateException("Tesseract executable not found");
+        }
+
+        List<String> command = new ArrayList<>();
+        command.add(tesseractPath);
+        command.add(imagePath);
+        command.add("stdout");
+        command.addAll(config.toArgs());
+        if (outputConfig != null) {
+            command.add(outputConfig);
+        }
+
+        Process process = new ProcessBuilder(command)
+            .redirectError(ProcessBuilder.Redirect.DISCARD)
+            .start();
+
+        // Fed from a helper thread so a stalled tesseract is still bounded by the timeout below
+        Thread writer = new Thread(() -> writeStdin(process, stdinImage), "tesseract-stdin");
+        writer.setDaemon(true);
+        writer.start();
+
+        // Kills the process if this thread is interrupted, e.g. when a parallel OCR run is cancelled
+        byte[] output = BotUtils.readProcessOutput(process, TimeUnit.SECONDS.toMillis(PROCESS_TIMEOUT_SECONDS));
+        if (output == null) {
+            throw new IllegalStateException("Tesseract timed out on " + imagePath);
+        }
+        return new String(output).trim();
+    }
+
+    private static void writeStdin(Process process, byte[] stdinImage) {
+        try (OutputStream stdin = process.getOutputStream()) {
+            if (stdinImage != null) {
+                stdin.write(stdinImage);
+            }
+        } catch (IOException e) {
+            // Process was killed before it read its input
+        }
+    }
+
+    /**
+     * Binary PGM (P5) of the image's luminance. Cheaper to produce than PNG
+     * and Tesseract converts to grayscale anyway.
+     */
+    private static byte[] toPgm(BufferedImage image) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        byte[] header = ("P5\n" + width + " " + height + "\n255\n").getBytes(StandardCharsets.US_ASCII);
+        byte[] pgm = new byte[header.length + width * height];
+        System.arraycopy(header, 0, pgm, 0, header.length);
+
+        int[] row = new int[width];
+        int offset = header.length;
+        for (int y = 0; y < height; y++) {
+            image.getRGB(0, y, width, 1, row, 0, width);
+            for (int pixel : row) {
+                pgm[offset++] = (byte) ((((pixel >> 16) & 0xFF) * 299 + ((pixel >> 8) & 0xFF) * 587 + (pixel & 0xFF) * 114) / 1000);
+            }
+        }
+        return pgm;
+    }
+
+    private static String findTesseractPath() {
+        String[] possiblePaths = {
+            "C:\\Program Files\\Tesseract-OCR\\tesseract.exe",
+            "C:\\Program Files (x86)\\Tesseract-OCR\\tesseract.exe",
+            "tesseract",
+            "tesseract.exe"
+        };
+
+        for (String path : possiblePaths) {
+            File tesseractFile = new File(path);
+            if (tesseractFile.exists() && tesseractFile.canExecute()) {
+                return path;
+            }
+        }
+
+        try {
+            Process process = new ProcessBuilder("tesseract", "--version").start();
+            process.waitFor();
+            if (process.exitValue() == 0) {
+                return "tesseract";
+            }
+        } catch (Exception e) {
+        }
+
+        return null;
+    }
+}
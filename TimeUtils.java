@@ -1,47 +1,37 @@
 package newgame;
 
-import java.util.regex.Pattern;
-import java.util.regex.Matcher;
-
+/**
+ * Time parsing and formatting. The parsers are hand-written single-pass
+ * scanners that reuse per-thread buffers, so the per-second UI refresh and
+ * the OCR paths do not allocate.
+ */
 public class TimeUtils {
     
+    private static final ThreadLocal<TimeScanner> scanners = ThreadLocal.withInitial(TimeScanner::new);
+    
+    /**
+     * Find a time in OCR text: H:MM:SS, then M:SS (as 00:M:SS), then a bare
+     * 4- or 6-digit run, ignoring every character other than digits and ':'.
+     * In-range values are normalized to HH:MM:SS; returns null if none found.
+     */
     public static String parseTimeFromText(String text) {
-        if (text == null || text.trim().isEmpty()) {
+        if (text == null) {
             return null;
         }
-        
-        try {
-            String cleaned = text.replaceAll("[^0-9:]", "");
-            
-            Pattern hhmmssPattern = Pattern.compile("(\\d{1,2}):(\\d{2}):(\\d{2})");
-            Matcher hhmmssMatch = hhmmssPattern.matcher(cleaned);
-            if (hhmmssMatch.find()) {
-                String time = hhmmssMatch.group(0);
-                return validateAndFormatTime(time);
-            }
-            
-            Pattern mmssPattern = Pattern.compile("(\\d{1,2}):(\\d{2})");
-            Matcher mmssMatch = mmssPattern.matcher(cleaned);
-            if (mmssMatch.find()) {
-                String time = "00:" + mmssMatch.group(0);
-                return validateAndFormatTime(time);
-            }
-            
-            Pattern digitsPattern = Pattern.compile("(\\d{4,6})");
-            Matcher digitsMatch = digitsPattern.matcher(cleaned);
-            if (digitsMatch.find()) {
-                String digits = digitsMatch.group(0);
-                String formattedTime = formatDigitsAsTime(digits);
-                if (formattedTime != null) {
-                    return formattedTime;
-                }
-            }
-            
-            return null;
-            
-        } catch (Exception e) {
-            return null;
+        TimeScanner scanner = scanners.get();
+        return scanner.find(text) ? scanner.toText() : null;
+    }
+    
+    /**
+     * Seconds of the time parseTimeFromText would find, without building the
+     * string. Returns -1 if the text contains no time.
+     */
+    public static long parseTimeSeconds(CharSequence text) {
+        if (text == null) {
+            return -1;
         }
+        TimeScanner scanner = scanners.get();
+        return scanner.find(text) ? scanner.hours * 3600 + scanner.minutes * 60 + scanner.seconds : -1;
     }
     
     public static String formatDigitsAsTime(String digits) {
@@ -94,34 +84,45 @@ public class TimeUtils {
         }
     }
     
+    /**
+     * Seconds in "H:MM:SS" or "M:SS"; 0 for anything else
+     */
     public static long parseTimeToSeconds(String timeStr) {
-        try {
-            if (timeStr == null || timeStr.trim().isEmpty()) {
-                return 0;
-            }
-            
-            String[] parts = timeStr.split(":");
-            if (parts.length == 3) {
-                long hours = Long.parseLong(parts[0]);
-                long minutes = Long.parseLong(parts[1]);
-                long seconds = Long.parseLong(parts[2]);
-                return hours * 3600 + minutes * 60 + seconds;
-            } else if (parts.length == 2) {
-                long minutes = Long.parseLong(parts[0]);
-                long seconds = Long.parseLong(parts[1]);
-                return minutes * 60 + seconds;
-            }
-            return 0;
-        } catch (Exception e) {
+        if (timeStr == null || isBlank(timeStr)) {
             return 0;
         }
+        return scanners.get().parseColonSeparated(timeStr);
     }
     
     public static String formatTime(long seconds) {
-        long hours = seconds / 3600;
-        long minutes = (seconds % 3600) / 60;
-        long secs = seconds % 60;
-        return String.format("%02d:%02d:%02d", hours, minutes, secs);
+        StringBuilder out = scanners.get().output;
+        out.setLength(0);
+        return appendTime(out, seconds).toString();
+    }
+    
+    /**
+     * Append seconds as HH:MM:SS to a caller-owned buffer without allocating
+     */
+    public static StringBuilder appendTime(StringBuilder out, long seconds) {
+        appendTwoDigits(out, seconds / 3600).append(':');
+        appendTwoDigits(out, (seconds % 3600) / 60).append(':');
+        return appendTwoDigits(out, seconds % 60);
+    }
+    
+    private static StringBuilder appendTwoDigits(StringBuilder out, long value) {
+        if (value >= 0 && value < 10) {
+            out.append('0');
+        }
+        return out.append(value);
+    }
+    
+    private static boolean isBlank(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) > ' ') {
+                return false;
+            }
+        }
+        return true;
     }
     
     public static String calculateTotalTime(String gatheringTime, String marchingTime) {
@@ -164,4 +165,225 @@ public class TimeUtils {
             return 0.0;
         }
     }
+    
+    /**
+     * Per-thread scanning state: the text filtered down to digits and ':',
+     * the last match and a reusable output buffer
+     */
+    private static final class TimeScanner {
+        private static final int HMS = 0;
+        private static final int MS = 1;
+        private static final int DIGITS = 2;
+        
+        char[] chars = new char[64];
+        int length;
+        int kind;
+        int start;
+        int end;
+        long hours;
+        long minutes;
+        long seconds;
+        long parsed;
+        final StringBuilder output = new StringBuilder(16);
+        
+        /**
+         * Leftmost H:MM:SS, else leftmost M:SS, else the leftmost run of 4+
+         * digits (first 6 used); a 5-digit run is no time at all
+         */
+        boolean find(CharSequence text) {
+            filter(text);
+            if (findColonTime(2)) {
+                kind = HMS;
+                return true;
+            }
+            if (findColonTime(1)) {
+                kind = MS;
+                return true;
+            }
+            return findDigitRun();
+        }
+        
+        private void filter(CharSequence text) {
+            if (chars.length < text.length()) {
+                chars = new char[Math.max(text.length(), chars.length * 2)];
+            }
+            length = 0;
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                if ((c >= '0' && c <= '9') || c == ':') {
+                    chars[length++] = c;
+                }
+            }
+        }
+        
+        /**
+         * One or two leading digits, preferring two, followed by pairs of
+         * ':' and two digits
+         */
+        private boolean findColonTime(int pairs) {
+            for (int s = 0; s < length; s++) {
+                for (int lead = 2; lead >= 1; lead--) {
+                    int position = s + lead;
+                    if (position + 3 * pairs > length || !digitsAt(s, lead)) {
+                        continue;
+                    }
+                    boolean match = true;
+                    for (int pair = 0; pair < pairs && match; pair++) {
+                        int colon = position + 3 * pair;
+                        match = chars[colon] == ':' && digitsAt(colon + 1, 2);
+                    }
+                    if (match) {
+                        start = s;
+                        end = position + 3 * pairs;
+                        long first = number(s, lead);
+                        if (pairs == 2) {
+                            hours = first;
+                            minutes = number(position + 1, 2);
+                            seconds = number(position + 4, 2);
+                        } else {
+                            hours = 0;
+                            minutes = first;
+                            seconds = number(position + 1, 2);
+                        }
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+        
+        private boolean findDigitRun() {
+            int s = 0;
+            while (s < length) {
+                int run = 0;
+                while (s + run < length && chars[s + run] != ':') {
+                    run++;
+                }
+                if (run >= 4) {
+                    int used = Math.min(run, 6);
+                    if (used == 5) {
+                        return false;
+                    }
+                    kind = DIGITS;
+                    start = s;
+                    end = s + used;
+                    hours = used == 6 ? number(s, 2) : 0;
+                    minutes = number(end - 4, 2);
+                    seconds = number(end - 2, 2);
+                    return true;
+                }
+                s += run + 1;
+            }
+            return false;
+        }
+        
+        private boolean digitsAt(int from, int count) {
+            for (int i = from; i < from + count; i++) {
+                if (chars[i] == ':') {
+                    return false;
+                }
+            }
+            return true;
+        }
+        
+        private long number(int from, int count) {
+            long value = 0;
+            for (int i = from; i < from + count; i++) {
+                value = value * 10 + (chars[i] - '0');
+            }
+            return value;
+        }
+        
+        /**
+         * Text of the last match: HH:MM:SS when in range, otherwise the raw
+         * match (with "00:" in front of M:SS), as validateAndFormatTime does.
+         * Bare 6-digit runs are never range-checked.
+         */
+        String toText() {
+            output.setLength(0);
+            boolean inRange = hours < 24 && minutes < 60 && seconds < 60;
+            if (kind == DIGITS || inRange) {
+                appendTwoDigits(output, hours).append(':');
+                appendTwoDigits(output, minutes).append(':');
+                appendTwoDigits(output, seconds);
+            } else {
+                if (kind == MS) {
+                    output.append("00:");
+                }
+                output.append(chars, start, end - start);
+            }
+            return output.toString();
+        }
+        
+        /**
+         * Same result as splitting on ':' (trailing empty parts dropped) and
+         * Long.parseLong on two or three parts, but without allocating
+         */
+        long parseColonSeparated(String text) {
+            int last = text.length();
+            while (last > 0 && text.charAt(last - 1) == ':') {
+                last--;
+            }
+            
+            int parts = 1;
+            for (int i = 0; i < last; i++) {
+                if (text.charAt(i) == ':') {
+                    parts++;
+                }
+            }
+            if (last == 0 || parts < 2 || parts > 3) {
+                return 0;
+            }
+            
+            long total = 0;
+            int from = 0;
+            for (int part = 0; part < parts; part++) {
+                int to = part == parts - 1 ? last : text.indexOf(':', from);
+                if (!parseLong(text, from, to)) {
+                    return 0;
+                }
+                total = total * 60 + parsed;
+                from = to + 1;
+            }
+            return total;
+        }
+        
+        /**
+         * Long.parseLong on text[from, to) into parsed; false where it would throw
+         */
+        private boolean parseLong(String text, int from, int to) {
+            if (from >= to) {
+                return false;
+            }
+            boolean negative = false;
+            long limit = -Long.MAX_VALUE;
+            char first = text.charAt(from);
+            if (first == '-' || first == '+') {
+                if (to - from == 1) {
+                    return false;
+                }
+                if (first == '-') {
+                    negative = true;
+                    limit = Long.MIN_VALUE;
+                }
+                from++;
+            }
+            
+            long multiplierLimit = limit / 10;
+            long result = 0;
+            for (int i = from; i < to; i++) {
+                int digit = Character.digit(text.charAt(i), 10);
+                if (digit < 0 || result < multiplierLimit) {
+                    return false;
+                }
+                result *= 10;
+                if (result < limit + digit) {
+                    return false;
+                }
+                result -= digit;
+            }
+            parsed = negative ? result : -result;
+            return true;
+        }
+    }
 }
\ No newline at end of file
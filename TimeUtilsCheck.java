@@ -0,0 +1,191 @@
+package newgame;
+
+import java.util.Objects;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Differential check of TimeUtils' hand-written parsers against the original
+ * regex implementations, kept here as Reference. Random OCR-like strings and
+ * a list of edge cases are fed to both and every disagreement is reported,
+ * followed by a short timing comparison. Exits non-zero on any mismatch.
+ *
+ * Usage: TimeUtilsCheck [cases] [seed]
+ */
+public class TimeUtilsCheck {
+    private static final long DEFAULT_CASES = 5_000_000;
+    private static final long DEFAULT_SEED = 42;
+    private static final int MAX_REPORTED = 10;
+    private static final int TIMING_READS = 2_000_000;
+    private static final String ALPHABET = "0123456789::::  ab-+lO١";
+
+    private static final String[] EDGE_TEXTS = {
+        null, "", "   ", "9223372036854775807:0", "-9223372036854775808:0:0", "9223372036854775808:0",
+        "::", "1::", "1:2:", ":1:2", "1:2:3:", "+:1", "-1:-2", " 1:2", "1:2 ", "١:2:3", "1:2:3:4"
+    };
+    private static final long[] EDGE_SECONDS = {Long.MIN_VALUE, Long.MAX_VALUE, -1, -3600, -61, 0, 359999, 360000};
+    private static final String[] TIMING_TEXTS = {"Gathered in 02:59:12", "0:45:07", "March 1:02", "123456"};
+
+    private static long mismatches;
+
+    public static void main(String[] args) {
+        long cases = args.length > 0 ? Long.parseLong(args[0]) : DEFAULT_CASES;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : DEFAULT_SEED;
+        Random random = new Random(seed);
+
+        for (long i = 0; i < cases; i++) {
+            String text = randomText(random);
+            checkText(text);
+            long seconds = random.nextInt(3) == 0 ? random.nextLong() : random.nextInt(200_000) - 1000;
+            checkFormat(seconds);
+        }
+        for (String text : EDGE_TEXTS) {
+            checkText(text);
+        }
+        for (long seconds : EDGE_SECONDS) {
+            checkFormat(seconds);
+        }
+
+        System.out.println((mismatches == 0 ? "✅" : "❌") + " [TIME CHECK] " + cases + " random cases (seed " + seed +
+                           ") plus edge cases: " + mismatches + " mismatches");
+        compareTiming();
+        System.exit(mismatches == 0 ? 0 : 1);
+    }
+
+    private static void checkText(String text) {
+        String expected = Reference.parseTimeFromText(text);
+        String actual = TimeUtils.parseTimeFromText(text);
+        if (!Objects.equals(expected, actual)) {
+            report("parseTimeFromText", text, expected, actual);
+        }
+
+        long expectedSeconds = expected == null ? -1 : Reference.parseTimeToSeconds(expected);
+        long actualSeconds = TimeUtils.parseTimeSeconds(text);
+        if (expectedSeconds != actualSeconds) {
+            report("parseTimeSeconds", text, expectedSeconds, actualSeconds);
+        }
+
+        long expectedToSeconds = Reference.parseTimeToSeconds(text);
+        long actualToSeconds = TimeUtils.parseTimeToSeconds(text);
+        if (expectedToSeconds != actualToSeconds) {
+            report("parseTimeToSeconds", text, expectedToSeconds, actualToSeconds);
+        }
+    }
+
+    private static void checkFormat(long seconds) {
+        String expected = Reference.formatTime(seconds);
+        String actual = TimeUtils.formatTime(seconds);
+        if (!expected.equals(actual)) {
+            report("formatTime", String.valueOf(seconds), expected, actual);
+        }
+    }
+
+    private static void report(String method, String input, Object expected, Object actual) {
+        if (mismatches++ < MAX_REPORTED) {
+            System.out.println("⚠️ [TIME CHECK] " + method + "('" + input + "'): reference " + expected + ", TimeUtils " + actual);
+        }
+    }
+
+    private static String randomText(Random random) {
+        int length = random.nextInt(14);
+        StringBuilder text = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            text.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+        }
+        return text.toString();
+    }
+
+    private static void compareTiming() {
+        for (int round = 0; round < 3; round++) {
+            long sink = 0;
+            long start = System.nanoTime();
+            for (int i = 0; i < TIMING_READS; i++) {
+                sink += Reference.parseTimeToSeconds(Reference.parseTimeFromText(TIMING_TEXTS[i & 3])) +
+                        Reference.formatTime(i).length();
+            }
+            long reference = System.nanoTime() - start;
+            start = System.nanoTime();
+            for (int i = 0; i < TIMING_READS; i++) {
+                sink += TimeUtils.parseTimeSeconds(TIMING_TEXTS[i & 3]) + TimeUtils.formatTime(i).length();
+            }
+            long current = System.nanoTime() - start;
+            System.out.println(String.format("⏱️ [TIME CHECK] parse + format: reference %.0f ns/op, TimeUtils %.0f ns/op (%d)",
+                (double) reference / TIMING_READS, (double) current / TIMING_READS, sink));
+        }
+    }
+
+    /**
+     * The regex-based TimeUtils methods the scanners replaced, unchanged
+     */
+    static class Reference {
+        static String parseTimeFromText(String text) {
+            if (text == null || text.trim().isEmpty()) {
+                return null;
+            }
+
+            try {
+                String cleaned = text.replaceAll("[^0-9:]", "");
+
+                Matcher hhmmssMatch = Pattern.compile("(\\d{1,2}):(\\d{2}):(\\d{2})").matcher(cleaned);
+                if (hhmmssMatch.find()) {
+                    return validateAndFormatTime(hhmmssMatch.group(0));
+                }
+
+                Matcher mmssMatch = Pattern.compile("(\\d{1,2}):(\\d{2})").matcher(cleaned);
+                if (mmssMatch.find()) {
+                    return validateAndFormatTime("00:" + mmssMatch.group(0));
+                }
+
+                Matcher digitsMatch = Pattern.compile("(\\d{4,6})").matcher(cleaned);
+                if (digitsMatch.find()) {
+                    return TimeUtils.formatDigitsAsTime(digitsMatch.group(0));
+                }
+
+                return null;
+            } catch (Exception e) {
+                return null;
+            }
+        }
+
+        static String validateAndFormatTime(String timeStr) {
+            try {
+                String[] parts = timeStr.split(":");
+                if (parts.length == 3) {
+                    int hours = Integer.parseInt(parts[0]);
+                    int minutes = Integer.parseInt(parts[1]);
+                    int seconds = Integer.parseInt(parts[2]);
+
+                    if (hours >= 0 && hours < 24 && minutes >= 0 && minutes < 60 && seconds >= 0 && seconds < 60) {
+                        return String.format("%02d:%02d:%02d", hours, minutes, seconds);
+                    }
+                }
+                return timeStr;
+            } catch (Exception e) {
+                return timeStr;
+            }
+        }
+
+        static long parseTimeToSeconds(String timeStr) {
+            try {
+                if (timeStr == null || timeStr.trim().isEmpty()) {
+                    return 0;
+                }
+
+                String[] parts = timeStr.split(":");
+                if (parts.length == 3) {
+                    return Long.parseLong(parts[0]) * 3600 + Long.parseLong(parts[1]) * 60 + Long.parseLong(parts[2]);
+                } else if (parts.length == 2) {
+                    return Long.parseLong(parts[0]) * 60 + Long.parseLong(parts[1]);
+                }
+                return 0;
+            } catch (Exception e) {
+                return 0;
+            }
+        }
+
+        static String formatTime(long seconds) {
+            return String.format("%02d:%02d:%02d", seconds / 3600, (seconds % 3600) / 60, seconds % 60);
+        }
+    }
+}
@@ -0,0 +1,487 @@
+package newgame;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.reflect.TypeToken;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import javax.imageio.ImageIO;
+
+/**
+ * Reads HH:MM:SS timers by matching segmented glyphs against learned samples
+ * of 0-9 and ':'. The game draws timers in one fixed font, so this takes a
+ * fraction of a millisecond where Tesseract takes tens. Samples are learned
+ * from Tesseract reads that a second config confirmed and persisted to
+ * timer_glyphs.json in batches; run main to bootstrap them from saved time crops.
+ */
+public class TimerGlyphRecognizer {
+    private static final String GLYPH_FILE = "timer_glyphs.json";
+    private static final String BOOTSTRAP_DIR = "screenshots";
+    private static final String SYMBOLS = "0123456789:";
+    private static final int CELL_COLS = 8;
+    private static final int CELL_ROWS = 12;
+    private static final int MIN_GLYPH_PIXELS = 2;
+    private static final int MAX_SAMPLES_PER_SYMBOL = 6;
+    private static final double DUPLICATE_SIMILARITY = 0.97;
+    private static final double AMBIGUITY_MARGIN = 0.04;
+    private static final String TIMER_PATTERN = "\\d{1,2}:\\d{2}:\\d{2}";
+    private static final long SAVE_INTERVAL_MS = 30_000;
+
+    public static final double MIN_CONFIDENCE = 0.85;
+
+    private static final Gson gson = new GsonBuilder().create();
+    // Replaced as a whole on every change so recognition never needs a lock
+    private static volatile List<Glyph> glyphs = Collections.emptyList();
+    // True once every symbol has a sample; until then a digit could match its nearest neighbour
+    private static volatile boolean complete;
+    private static final Object saveLock = new Object();
+    private static volatile boolean dirty;
+    private static volatile boolean frozen;
+    private static long lastSaveTime;
+
+    static {
+        load();
+        Runtime.getRuntime().addShutdownHook(new Thread(TimerGlyphRecognizer::save, "timer-glyphs-shutdown"));
+    }
+
+    /**
+     * One learned sample: the glyph's shape on a fixed grid plus its
+     * proportions, which tell ':' and '1' apart once normalized
+     */
+    static class Glyph {
+        String symbol;
+        double aspect;
+        double relativeHeight;
+        float[] cells;
+
+        double similarity(Glyph other) {
+            double diff = 0;
+            for (int i = 0; i < cells.length; i++) {
+                diff += Math.abs(cells[i] - other.cells[i]);
+            }
+            diff /= cells.length;
+            diff += 0.5 * Math.min(1, Math.abs(aspect - other.aspect));
+            diff += 0.5 * Math.abs(relativeHeight - other.relativeHeight);
+            return Math.max(0, 1 - diff);
+        }
+    }
+
+    public static class Result {
+        public final String text;
+        public final String time;
+        public final double confidence;
+
+        Result(String text, String time, double confidence) {
+            this.text = text;
+            this.time = time;
+            this.confidence = confidence;
+        }
+
+        public boolean isConfident() {
+            return time != null && confidence >= MIN_CONFIDENCE;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("'%s' (confidence %.2f)", text, confidence);
+        }
+    }
+
+    /**
+     * Recognize a timer crop. The result's time is null unless the glyphs
+     * formed a complete H:MM:SS; confidence is the weakest glyph's match.
+     * Nothing is confident while some symbol has no sample yet.
+     */
+    public static Result recognize(BufferedImage image) {
+        List<Glyph> samples = glyphs;
+        if (!complete || image == null) {
+            return new Result("", null, 0);
+        }
+
+        StringBuilder text = new StringBuilder();
+        double confidence = 1;
+        for (Glyph glyph : segment(image)) {
+            String bestSymbol = null;
+            double best = 0;
+            double bestOther = 0;
+            for (Glyph sample : samples) {
+                double similarity = glyph.similarity(sample);
+                if (similarity > best) {
+                    if (bestSymbol != null && !bestSymbol.equals(sample.symbol)) {
+                        bestOther = best;
+                    }
+                    best = similarity;
+                    bestSymbol = sample.symbol;
+                } else if (!sample.symbol.equals(bestSymbol) && similarity > bestOther) {
+                    bestOther = similarity;
+                }
+            }
+            if (bestSymbol == null) {
+                return new Result(text.toString(), null, 0);
+            }
+
+            // A close second from another symbol means the glyph is ambiguous
+            double glyphConfidence = best - bestOther < AMBIGUITY_MARGIN ? best / 2 : best;
+            confidence = Math.min(confidence, glyphConfidence);
+            text.append(bestSymbol);
+        }
+
+        String read = text.toString();
+        long seconds = timerSeconds(read);
+        if (seconds < 0) {
+            return new Result(read, null, 0);
+        }
+        return new Result(read, TimeUtils.formatTime(seconds), confidence);
+    }
+
+    /**
+     * Learn glyph samples from a crop whose text is known, e.g. a confirmed
+     * Tesseract read. Ignored unless the text is a full timer and the crop
+     * segments into exactly one glyph per character. Returns samples added.
+     * The file is written at most every SAVE_INTERVAL_MS and at shutdown.
+     */
+    public static int learn(BufferedImage image, String text) {
+        if (image == null || text == null || frozen) {
+            return 0;
+        }
+        String label = text.replaceAll("[^0-9:]", "");
+        if (!label.matches(TIMER_PATTERN)) {
+            return 0;
+        }
+        List<Glyph> segments = segment(image);
+        if (segments.size() != label.length()) {
+            return 0;
+        }
+
+        int added = 0;
+        synchronized (TimerGlyphRecognizer.class) {
+            List<Glyph> updated = new ArrayList<>(glyphs);
+            for (int i = 0; i < label.length(); i++) {
+                Glyph glyph = segments.get(i);
+                glyph.symbol = String.valueOf(label.charAt(i));
+                if (addSample(updated, glyph)) {
+                    added++;
+                }
+            }
+            if (added > 0) {
+                glyphs = Collections.unmodifiableList(updated);
+                complete = coversAllSymbols(updated);
+                dirty = true;
+            }
+        }
+        if (added > 0) {
+            saveIfDue();
+        }
+        return added;
+    }
+
+    /**
+     * While frozen, learn adds nothing and save writes nothing
+     */
+    static void setFrozen(boolean freeze) {
+        frozen = freeze;
+    }
+
+    public static int getSampleCount() {
+        return glyphs.size();
+    }
+
+    /**
+     * Seconds in an H:MM:SS or HH:MM:SS timer, or -1 if text is not one
+     */
+    private static long timerSeconds(String text) {
+        int hourDigits = text.length() - 6;
+        if (hourDigits < 1 || hourDigits > 2 || text.charAt(hourDigits) != ':' || text.charAt(hourDigits + 3) != ':') {
+            return -1;
+        }
+        long hours = 0;
+        for (int i = 0; i < hourDigits; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            hours = hours * 10 + (c - '0');
+        }
+        int minutes = twoDigits(text, hourDigits + 1);
+        int seconds = twoDigits(text, hourDigits + 4);
+        if (minutes < 0 || minutes >= 60 || seconds < 0 || seconds >= 60) {
+            return -1;
+        }
+        return hours * 3600 + minutes * 60 + seconds;
+    }
+
+    private static int twoDigits(String text, int start) {
+        char tens = text.charAt(start);
+        char ones = text.charAt(start + 1);
+        if (tens < '0' || tens > '9' || ones < '0' || ones > '9') {
+            return -1;
+        }
+        return (tens - '0') * 10 + (ones - '0');
+    }
+
+    private static boolean coversAllSymbols(List<Glyph> samples) {
+        for (char symbol : SYMBOLS.toCharArray()) {
+            if (samples.stream().noneMatch(glyph -> glyph.symbol.charAt(0) == symbol)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Symbols that have no learned sample yet
+     */
+    public static String getMissingSymbols() {
+        StringBuilder missing = new StringBuilder();
+        for (char symbol : SYMBOLS.toCharArray()) {
+            if (glyphs.stream().noneMatch(glyph -> glyph.symbol.charAt(0) == symbol)) {
+                missing.append(symbol);
+            }
+        }
+        return missing.toString();
+    }
+
+    private static boolean addSample(List<Glyph> samples, Glyph glyph) {
+        List<Glyph> sameSymbol = new ArrayList<>();
+        for (Glyph sample : samples) {
+            if (sample.symbol.equals(glyph.symbol)) {
+                if (sample.similarity(glyph) >= DUPLICATE_SIMILARITY) {
+                    return false;
+                }
+                sameSymbol.add(sample);
+            }
+        }
+        if (sameSymbol.size() >= MAX_SAMPLES_PER_SYMBOL) {
+            samples.remove(sameSymbol.get(0));
+        }
+        samples.add(glyph);
+        return true;
+    }
+
+    /**
+     * Split a crop into glyphs: binarize with Otsu's threshold (text is the
+     * minority class, so light-on-dark and dark-on-light both work), then cut
+     * at empty columns. Each glyph is normalized to a CELL_COLS x CELL_ROWS grid.
+     */
+    static List<Glyph> segment(BufferedImage image) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        int[] rgb = image.getRGB(0, 0, width, height, null, 0, width);
+
+        int[] histogram = new int[256];
+        int[] luminance = new int[rgb.length];
+        for (int i = 0; i < rgb.length; i++) {
+            int pixel = rgb[i];
+            int value = (((pixel >> 16) & 0xFF) * 299 + ((pixel >> 8) & 0xFF) * 587 + (pixel & 0xFF) * 114) / 1000;
+            luminance[i] = value;
+            histogram[value]++;
+        }
+
+        int threshold = otsuThreshold(histogram, rgb.length);
+        int bright = 0;
+        for (int value : luminance) {
+            if (value > threshold) {
+                bright++;
+            }
+        }
+        boolean textIsBright = bright <= rgb.length / 2;
+
+        boolean[] text = new boolean[rgb.length];
+        boolean[] columnHasText = new boolean[width];
+        for (int i = 0; i < rgb.length; i++) {
+            text[i] = (luminance[i] > threshold) == textIsBright;
+            if (text[i]) {
+                columnHasText[i % width] = true;
+            }
+        }
+
+        List<int[]> boxes = new ArrayList<>();
+        int maxHeight = 0;
+        for (int x = 0; x < width; x++) {
+            if (!columnHasText[x]) {
+                continue;
+            }
+            int start = x;
+            while (x + 1 < width && columnHasText[x + 1]) {
+                x++;
+            }
+            int top = height;
+            int bottom = -1;
+            int pixels = 0;
+            for (int y = 0; y < height; y++) {
+                for (int cx = start; cx <= x; cx++) {
+                    if (text[y * width + cx]) {
+                        top = Math.min(top, y);
+                        bottom = Math.max(bottom, y);
+                        pixels++;
+                    }
+                }
+            }
+            if (pixels >= MIN_GLYPH_PIXELS) {
+                boxes.add(new int[] {start, top, x - start + 1, bottom - top + 1});
+                maxHeight = Math.max(maxHeight, bottom - top + 1);
+            }
+        }
+
+        List<Glyph> result = new ArrayList<>(boxes.size());
+        for (int[] box : boxes) {
+            Glyph glyph = new Glyph();
+            glyph.aspect = (double) box[2] / box[3];
+            glyph.relativeHeight = (double) box[3] / maxHeight;
+            glyph.cells = normalize(text, width, box);
+            result.add(glyph);
+        }
+        return result;
+    }
+
+    /**
+     * Fraction of text pixels in each cell of the glyph's bounding box
+     */
+    private static float[] normalize(boolean[] text, int width, int[] box) {
+        float[] cells = new float[CELL_COLS * CELL_ROWS];
+        for (int row = 0; row < CELL_ROWS; row++) {
+            int y0 = box[1] + row * box[3] / CELL_ROWS;
+            int y1 = Math.max(y0 + 1, box[1] + (row + 1) * box[3] / CELL_ROWS);
+            for (int col = 0; col < CELL_COLS; col++) {
+                int x0 = box[0] + col * box[2] / CELL_COLS;
+                int x1 = Math.max(x0 + 1, box[0] + (col + 1) * box[2] / CELL_COLS);
+                int on = 0;
+                for (int y = y0; y < y1; y++) {
+                    for (int x = x0; x < x1; x++) {
+                        if (text[y * width + x]) {
+                            on++;
+                        }
+                    }
+                }
+                cells[row * CELL_COLS + col] = (float) on / ((y1 - y0) * (x1 - x0));
+            }
+        }
+        return cells;
+    }
+
+    private static int otsuThreshold(int[] histogram, int total) {
+        long sum = 0;
+        for (int i = 0; i < 256; i++) {
+            sum += (long) i * histogram[i];
+        }
+
+        long backgroundSum = 0;
+        int backgroundCount = 0;
+        double bestVariance = -1;
+        int threshold = 127;
+        for (int i = 0; i < 256; i++) {
+            backgroundCount += histogram[i];
+            if (backgroundCount == 0) {
+                continue;
+            }
+            int foregroundCount = total - backgroundCount;
+            if (foregroundCount == 0) {
+                break;
+            }
+            backgroundSum += (long) i * histogram[i];
+            double backgroundMean = (double) backgroundSum / backgroundCount;
+            double foregroundMean = (double) (sum - backgroundSum) / foregroundCount;
+            double variance = (double) backgroundCount * foregroundCount * Math.pow(backgroundMean - foregroundMean, 2);
+            if (variance > bestVariance) {
+                bestVariance = variance;
+                threshold = i;
+            }
+        }
+        return threshold;
+    }
+
+    private static synchronized void load() {
+        File file = new File(GLYPH_FILE);
+        if (!file.exists()) {
+            return;
+        }
+        try (FileReader reader = new FileReader(file)) {
+            java.lang.reflect.Type type = new TypeToken<List<Glyph>>(){}.getType();
+            List<Glyph> loaded = gson.fromJson(reader, type);
+            if (loaded != null) {
+                glyphs = Collections.unmodifiableList(loaded);
+                complete = coversAllSymbols(loaded);
+                System.out.println("🔢 [TIMER] Loaded " + loaded.size() + " timer glyph samples");
+            }
+        } catch (Exception e) {
+            System.err.println("⚠️ [TIMER] Could not load " + GLYPH_FILE + ": " + e.getMessage());
+        }
+    }
+
+    private static void saveIfDue() {
+        synchronized (saveLock) {
+            if (System.currentTimeMillis() - lastSaveTime < SAVE_INTERVAL_MS) {
+                return;
+            }
+        }
+        save();
+    }
+
+    /**
+     * Write the current sample list. Runs under its own lock, so learning and
+     * recognition never wait on the file.
+     */
+    static void save() {
+        synchronized (saveLock) {
+            lastSaveTime = System.currentTimeMillis();
+            if (!dirty || frozen) {
+                return;
+            }
+            dirty = false;
+            List<Glyph> snapshot = glyphs;
+            try (FileWriter writer = new FileWriter(GLYPH_FILE)) {
+                gson.toJson(snapshot, writer);
+            } catch (Exception e) {
+                dirty = true;
+                System.err.println("⚠️ [TIMER] Could not save " + GLYPH_FILE + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Bootstrap the glyph set from saved timer crops (any *time*.png under the
+     * given directories, default screenshots/), labelling each with Tesseract.
+     * A crop is only learned from when two time configs read the same time.
+     */
+    public static void main(String[] args) {
+        String[] dirs = args.length > 0 ? args : new String[] {BOOTSTRAP_DIR};
+        int files = 0;
+        int added = 0;
+        for (String dir : dirs) {
+            File[] crops = new File(dir).listFiles((d, name) ->
+                name.toLowerCase().contains("time") && name.toLowerCase().endsWith(".png"));
+            if (crops == null) {
+                System.err.println("⚠️ [TIMER] Not a directory: " + dir);
+                continue;
+            }
+            for (File crop : crops) {
+                try {
+                    BufferedImage image = ImageIO.read(crop);
+                    String label = OCRUtils.recognize(image, OCRUtils.TIME_CONFIGS[0]);
+                    String time = TimeUtils.parseTimeFromText(label);
+                    int learned = time != null && OCRUtils.confirmTimeRead(image, time, OCRUtils.TIME_CONFIGS[0])
+                        ? learn(image, label) : 0;
+                    files++;
+                    added += learned;
+                    System.out.println("🔢 [TIMER] " + crop.getName() + " -> '" + label + "' (+" + learned + " samples)");
+                } catch (Exception e) {
+                    System.err.println("❌ [TIMER] " + crop.getName() + ": " + e.getMessage());
+                }
+            }
+        }
+
+        save();
+        System.out.println("🔢 [TIMER] Processed " + files + " crops, added " + added + " samples, " +
+                           getSampleCount() + " total");
+        String missing = getMissingSymbols();
+        if (!missing.isEmpty()) {
+            System.out.println("⚠️ [TIMER] Still missing samples for: " + missing);
+        }
+        System.exit(0);
+    }
+}
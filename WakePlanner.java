@@ -0,0 +1,217 @@
+package newgame;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Staggers wake-ups across the fleet so that no more than
+ * SystemSettings.maxConcurrentInstances emulators boot at once. Instances
+ * deployed together otherwise wake together, and simultaneous boots saturate
+ * host CPU and disk and slow every one of them down.
+ *
+ * Each planned boot occupies a window from its start as long as the
+ * instance's p90 time-to-ready in BootLatencyModel, or
+ * DEFAULT_BOOT_WINDOW_SECONDS until that has been measured.
+ * A wake that would push a window over the limit is moved to the cheapest slot
+ * within the tolerance. Moving it earlier only costs emulator time. Moving it
+ * later leaves returned marches idle, and that lost gather time is reported.
+ */
+public class WakePlanner {
+    private static final long DEFAULT_BOOT_WINDOW_SECONDS = 90;
+    private static final double BOOT_WINDOW_PERCENTILE = 0.9;
+    private static final long MAX_EARLY_SHIFT_SECONDS = 600;
+    private static final long MAX_LATE_SHIFT_SECONDS = 300;
+    // An idle march costs yield; an early boot only costs emulator time
+    private static final double EARLY_COST_WEIGHT = 0.25;
+
+    private static volatile SystemSettings systemSettings = new SystemSettings();
+
+    // Every planned or in-progress wake, per instance
+    private static final Map<Integer, Boot> plannedBoots = new HashMap<>();
+
+    private static int plannedWakes;
+    private static int shiftedWakes;
+    private static int overLimitWakes;
+    private static long earlySeconds;
+    private static long lateSeconds;
+    private static long lostMarchSeconds;
+
+    /**
+     * A reserved boot: start in epoch ms and how long it keeps the host busy
+     */
+    private static class Boot {
+        final long start;
+        final long windowMs;
+
+        Boot(long start, long windowMs) {
+            this.start = start;
+            this.windowMs = windowMs;
+        }
+
+        long end() {
+            return start + windowMs;
+        }
+    }
+
+    public static class Plan {
+        public final long delaySeconds;
+        public final long shiftSeconds;     // negative = earlier than requested
+        public final long lostMarchSeconds;
+        public final int concurrentBoots;
+
+        Plan(long delaySeconds, long shiftSeconds, long lostMarchSeconds, int concurrentBoots) {
+            this.delaySeconds = delaySeconds;
+            this.shiftSeconds = shiftSeconds;
+            this.lostMarchSeconds = lostMarchSeconds;
+            this.concurrentBoots = concurrentBoots;
+        }
+    }
+
+    public static void setSystemSettings(SystemSettings settings) {
+        if (settings != null) {
+            systemSettings = settings;
+        }
+    }
+
+    /**
+     * Choose when the instance should actually boot, given the delay it asked
+     * for and how many marches will sit idle if the boot is late. The wake is
+     * never moved earlier than minDelaySeconds from now, so a hibernation
+     * worth doing is not shortened into a stop followed by an immediate boot.
+     * The boot is reserved until release() or until its window has passed.
+     */
+    public static synchronized Plan plan(int instanceIndex, long requestedDelaySeconds, long minDelaySeconds, int marchCount) {
+        long now = System.currentTimeMillis();
+        long windowMs = bootWindowSeconds(instanceIndex) * 1000;
+        int limit = Math.max(1, systemSettings.maxConcurrentInstances);
+        pruneFinishedBoots(now);
+        plannedBoots.remove(instanceIndex);
+
+        long requested = now + Math.max(0, requestedDelaySeconds) * 1000;
+        long earliest = Math.min(requested,
+            Math.max(now + Math.max(0, minDelaySeconds) * 1000, requested - MAX_EARLY_SHIFT_SECONDS * 1000));
+        long latest = requested + MAX_LATE_SHIFT_SECONDS * 1000;
+
+        // The best slot is the request itself or sits right against another boot window
+        List<Long> candidates = new ArrayList<>();
+        candidates.add(requested);
+        candidates.add(earliest);
+        for (Boot other : plannedBoots.values()) {
+            candidates.add(other.end());
+            candidates.add(other.start - windowMs);
+        }
+
+        long best = requested;
+        double bestCost = Double.MAX_VALUE;
+        int bestBoots = Integer.MAX_VALUE;
+        for (long candidate : candidates) {
+            if (candidate < earliest || candidate > latest) {
+                continue;
+            }
+            int boots = peakBoots(candidate, windowMs) + 1;
+            double cost = shiftCost(candidate - requested, marchCount);
+            boolean fits = boots <= limit;
+            boolean bestFits = bestBoots <= limit;
+            // Prefer any slot within the limit, then the cheapest; past the limit, the least crowded
+            if ((fits && (!bestFits || cost < bestCost)) ||
+                (!fits && !bestFits && (boots < bestBoots || (boots == bestBoots && cost < bestCost)))) {
+                best = candidate;
+                bestCost = cost;
+                bestBoots = boots;
+            }
+        }
+
+        plannedBoots.put(instanceIndex, new Boot(best, windowMs));
+
+        long shift = Math.round((best - requested) / 1000.0);
+        long lost = Math.max(0, shift) * Math.max(1, marchCount);
+        plannedWakes++;
+        if (shift != 0) {
+            shiftedWakes++;
+            if (shift < 0) {
+                earlySeconds += -shift;
+            } else {
+                lateSeconds += shift;
+                lostMarchSeconds += lost;
+            }
+        }
+        if (bestBoots > limit) {
+            overLimitWakes++;
+            System.out.println("⚠️ [WAKE PLAN] Instance " + instanceIndex + " boots alongside " + (bestBoots - 1) +
+                               " others (limit " + limit + "), no free slot within tolerance");
+        } else if (shift != 0) {
+            System.out.println("📅 [WAKE PLAN] Instance " + instanceIndex + " wake moved " +
+                               (shift < 0 ? "earlier" : "later") + " by " + TimeUtils.formatTime(Math.abs(shift)) +
+                               " to keep boots within " + limit + (lost > 0 ? ", costs " + TimeUtils.formatTime(lost) + " of idle march time" : ""));
+        }
+
+        return new Plan((best - now + 999) / 1000, shift, lost, bestBoots);
+    }
+
+    /**
+     * Drop the instance's reserved boot, e.g. when its gathering is stopped
+     */
+    public static synchronized void release(int instanceIndex) {
+        plannedBoots.remove(instanceIndex);
+    }
+
+    public static synchronized long getLostMarchSeconds() {
+        return lostMarchSeconds;
+    }
+
+    public static synchronized String describe() {
+        return String.format("Wake planner: %d wakes, %d shifted (%s earlier, %s later), %d over the boot limit, %s idle march time lost",
+            plannedWakes, shiftedWakes, TimeUtils.formatTime(earlySeconds), TimeUtils.formatTime(lateSeconds),
+            overLimitWakes, TimeUtils.formatTime(lostMarchSeconds));
+    }
+
+    /**
+     * Seconds a boot of this instance keeps the host busy
+     */
+    private static long bootWindowSeconds(int instanceIndex) {
+        long measured = BootLatencyModel.percentileSeconds(instanceIndex, BOOT_WINDOW_PERCENTILE);
+        return measured > 0 ? measured : DEFAULT_BOOT_WINDOW_SECONDS;
+    }
+
+    /**
+     * Most other boots running at any moment of the window starting at start.
+     * Concurrency only rises at window starts, so those are the points to check.
+     */
+    private static int peakBoots(long start, long windowMs) {
+        int peak = 0;
+        List<Long> points = new ArrayList<>();
+        points.add(start);
+        for (Boot other : plannedBoots.values()) {
+            if (other.start > start && other.start < start + windowMs) {
+                points.add(other.start);
+            }
+        }
+        for (long point : points) {
+            int booting = 0;
+            for (Boot other : plannedBoots.values()) {
+                if (other.start <= point && point < other.end()) {
+                    booting++;
+                }
+            }
+            peak = Math.max(peak, booting);
+        }
+        return peak;
+    }
+
+    private static double shiftCost(long shiftMs, int marchCount) {
+        double seconds = shiftMs / 1000.0;
+        return seconds >= 0 ? seconds * Math.max(1, marchCount) : -seconds * EARLY_COST_WEIGHT;
+    }
+
+    private static void pruneFinishedBoots(long now) {
+        Iterator<Boot> boots = plannedBoots.values().iterator();
+        while (boots.hasNext()) {
+            if (boots.next().end() <= now) {
+                boots.remove();
+            }
+        }
+    }
+}
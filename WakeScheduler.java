@@ -0,0 +1,190 @@
+package newgame;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongConsumer;
+
+/**
+ * Fleet-wide owner of every pending wake-up. Deadlines sit in one priority
+ * queue watched by a single dispatcher thread, so a hibernating instance
+ * holds no thread at all. When a deadline passes, its wake callback runs on a
+ * wake worker thread, and the thread exists only while that instance is awake.
+ * Deadlines are System.nanoTime values, so wall clock changes such as NTP
+ * corrections or sleep/resume do not move them.
+ */
+public class WakeScheduler {
+    private static final long COUNTDOWN_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(10);
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private static final Object lock = new Object();
+    private static final PriorityQueue<Wake> queue = new PriorityQueue<>();
+    // At most one pending wake per instance; scheduling again replaces it
+    private static final Map<Integer, Wake> pending = new HashMap<>();
+    private static final AtomicInteger workerCount = new AtomicInteger();
+    private static final ExecutorService wakeWorkers = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "wake-worker-" + workerCount.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private static Thread dispatcher;
+    private static long sequence;
+    private static long nextCountdown = System.nanoTime();
+
+    private static class Wake implements Comparable<Wake> {
+        final int instanceIndex;
+        // System.nanoTime at which the wake is due
+        final long deadline;
+        final long order;
+        final Runnable onWake;
+        final LongConsumer onCountdown;
+
+        Wake(int instanceIndex, long deadline, long order, Runnable onWake, LongConsumer onCountdown) {
+            this.instanceIndex = instanceIndex;
+            this.deadline = deadline;
+            this.order = order;
+            this.onWake = onWake;
+            this.onCountdown = onCountdown;
+        }
+
+        @Override
+        public int compareTo(Wake other) {
+            int byDeadline = Long.signum(deadline - other.deadline);
+            return byDeadline != 0 ? byDeadline : Long.compare(order, other.order);
+        }
+    }
+
+    /**
+     * Wake the instance after delaySeconds, replacing any wake already pending
+     * for it. onCountdown (optional) receives the remaining seconds every ten
+     * seconds until then, for status display.
+     */
+    public static void schedule(int instanceIndex, long delaySeconds, Runnable onWake, LongConsumer onCountdown) {
+        synchronized (lock) {
+            Wake previous = pending.remove(instanceIndex);
+            if (previous != null) {
+                queue.remove(previous);
+            }
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(Math.max(0, delaySeconds));
+            Wake wake = new Wake(instanceIndex, deadline, sequence++, onWake, onCountdown);
+            queue.add(wake);
+            pending.put(instanceIndex, wake);
+
+            if (dispatcher == null) {
+                dispatcher = new Thread(WakeScheduler::dispatchLoop, "wake-scheduler");
+                dispatcher.setDaemon(true);
+                dispatcher.start();
+            }
+            lock.notifyAll();
+        }
+        System.out.println("⏰ [WAKE] Instance " + instanceIndex + " wakes in " + TimeUtils.formatTime(Math.max(0, delaySeconds)) +
+                           " (" + getPendingCount() + " pending)");
+    }
+
+    /**
+     * Drop the instance's pending wake. Returns false if it had none, which
+     * means it is awake or its wake is already being dispatched.
+     */
+    public static boolean cancel(int instanceIndex) {
+        synchronized (lock) {
+            Wake wake = pending.remove(instanceIndex);
+            if (wake == null) {
+                return false;
+            }
+            queue.remove(wake);
+            lock.notifyAll();
+            return true;
+        }
+    }
+
+    /**
+     * Seconds until the instance's wake, or -1 if none is pending
+     */
+    public static long getRemainingSeconds(int instanceIndex) {
+        synchronized (lock) {
+            Wake wake = pending.get(instanceIndex);
+            return wake == null ? -1 : remainingSeconds(wake, System.nanoTime());
+        }
+    }
+
+    public static int getPendingCount() {
+        synchronized (lock) {
+            return pending.size();
+        }
+    }
+
+    public static String describe() {
+        synchronized (lock) {
+            Wake next = queue.peek();
+            return "Wake scheduler: " + pending.size() + " hibernating" +
+                   (next == null ? "" : ", next is instance " + next.instanceIndex + " in " +
+                    TimeUtils.formatTime(remainingSeconds(next, System.nanoTime())));
+        }
+    }
+
+    private static long remainingSeconds(Wake wake, long now) {
+        long remaining = wake.deadline - now;
+        return remaining <= 0 ? 0 : (remaining + NANOS_PER_SECOND - 1) / NANOS_PER_SECOND;
+    }
+
+    private static void dispatchLoop() {
+        while (true) {
+            List<Wake> due = new ArrayList<>();
+            List<Wake> countdown = null;
+            long now;
+
+            synchronized (lock) {
+                now = System.nanoTime();
+                while (!queue.isEmpty() && queue.peek().deadline - now <= 0) {
+                    Wake wake = queue.poll();
+                    pending.remove(wake.instanceIndex);
+                    due.add(wake);
+                }
+                if (now - nextCountdown >= 0) {
+                    countdown = new ArrayList<>(queue);
+                    nextCountdown = now + COUNTDOWN_INTERVAL_NANOS;
+                }
+                if (due.isEmpty() && countdown == null) {
+                    // wait(0) blocks until the next schedule() when nothing is pending
+                    long waitNanos = queue.isEmpty() ? 0 : Math.min(queue.peek().deadline - now, nextCountdown - now);
+                    long waitMs = queue.isEmpty() ? 0 : Math.max(1, TimeUnit.NANOSECONDS.toMillis(waitNanos));
+                    try {
+                        lock.wait(waitMs);
+                    } catch (InterruptedException e) {
+                        // The dispatcher lives for the whole process
+                    }
+                    continue;
+                }
+            }
+
+            for (Wake wake : due) {
+                wakeWorkers.execute(() -> {
+                    try {
+                        wake.onWake.run();
+                    } catch (Exception e) {
+                        System.err.println("❌ [WAKE] Wake-up failed for instance " + wake.instanceIndex + ": " + e.getMessage());
+                    }
+                });
+            }
+            if (countdown != null) {
+                for (Wake wake : countdown) {
+                    if (wake.onCountdown == null) {
+                        continue;
+                    }
+                    try {
+                        wake.onCountdown.accept(remainingSeconds(wake, now));
+                    } catch (Exception e) {
+                        System.err.println("⚠️ [WAKE] Countdown update failed for instance " + wake.instanceIndex + ": " + e.getMessage());
+                    }
+                }
+            }
+        }
+    }
+}